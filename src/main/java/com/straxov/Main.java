@@ -1,18 +1,18 @@
 package com.straxov;
 
 import com.straxov.agent.Media;
+import com.straxov.anomaly.AnomalyDetector;
 import com.straxov.city.City;
-import com.straxov.entitiy.Spender;
-import com.straxov.entitiy.Worker;
+import com.straxov.entitiy.Bank;
+import com.straxov.live.LiveStateExporter;
 import com.straxov.loader.ConfigLoader;
 import com.straxov.helper.HelpDesk;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.Path;
 
 /**
  * Main class for running the city economic simulation.
- * Initializes all components, starts worker/spender threads, and manages simulation lifecycle.
+ * Initializes all components, starts the city scheduler, and manages simulation lifecycle.
  */
 public class Main {
     /**
@@ -26,57 +26,63 @@ public class Main {
         HelpDesk helpDesk = HelpDesk.getInstance();
         helpDesk.printHelp();
         // Load configuration
-        ConfigLoader config = ConfigLoader.getInstance();
+        ConfigLoader config = new ConfigLoader();
         config.loadFromPropertiesFile("src/main/resources/config.properties");
 
         // Initialize city (all entities created inside City)
-        City city = City.getInstance();
+        City city = new City(config);
 
         // Calculate initial money
         int totalStart = city.getTotalMoney();
         System.out.println("Total money amount in city on day start: " + totalStart + "$\n");
 
-        // Start all threads
-        List<Thread> threads = getThreads(city);
+        // Start the scheduler and kick off all spenders
+        city.start();
+
+        // Publish live state for external monitors
+        LiveStateExporter liveState = null;
+        String liveFile = config.getLiveExportFile();
+        if (!liveFile.isEmpty()) {
+            liveState = new LiveStateExporter(city, Path.of(liveFile), config.getLiveExportInterval());
+            liveState.start(city.getScheduler());
+        }
 
         // Start media daemon thread
-        Media media = new Media(2000);
+        Media media = new Media(city, 2000);
         media.setDaemon(true);
         media.start();
 
         // Wait for day to complete
-        Thread.sleep(ConfigLoader.getDayDuration());
+        Thread.sleep(config.getDayDuration());
 
-        // Stop all client threads
-        city.getWorkers().forEach(Worker::stopClient);
-        city.getSpenders().forEach(Spender::stopClient);
-
-        // Wait for threads to finish
-        for (Thread thread : threads) {
-            thread.join();
+        // Stop all clients and wait for in-flight actions to finish
+        if (liveState != null) liveState.stop();
+        city.stop();
+        if (liveState != null) {
+            liveState.publish();
+            liveState.close();
         }
 
         // Calculate final money
         int totalEnd = city.getTotalMoney();
         System.out.println("\nTotal money amount in city on day end: " + totalEnd + "$\n");
-    }
-
-    private static List<Thread> getThreads(City city) {
-        List<Thread> threads = new ArrayList<>();
-
-        // Start worker threads
-        for (Worker worker : city.getWorkers()) {
-            Thread workerThread = new Thread(worker, worker.getName());
-            threads.add(workerThread);
-            workerThread.start();
-        }
+        System.out.println(city.getClearingHouse().getReport());
+        System.out.println(city.getAutoscaler().getReport());
+        System.out.println(city.getJobMarket().getReport());
+        System.out.println(city.getShiftScheduler().getReport());
+        long outstanding = 0;
+        for (Bank bank : city.getBanks()) outstanding += bank.getOutstandingPrincipal();
+        System.out.println("Outstanding client loans: " + outstanding + "$");
+        AnomalyDetector detector = city.getAnomalyDetector();
+        System.out.println("Anomaly alerts: " + detector.getAlertCount()
+                + ", p99.9 detection time at most " + String.format("%.1f", detector.getDetectionNanosPercentile(99.9) / 1000.0)
+                + "us, max " + String.format("%.1f", detector.getMaxDetectionNanos() / 1000.0) + "us");
 
-        // Start spender threads
-        for (Spender spender : city.getSpenders()) {
-            Thread spenderThread = new Thread(spender, spender.getName());
-            threads.add(spenderThread);
-            spenderThread.start();
+        // Export recorded time series
+        String metricsFile = config.getMetricsExportFile();
+        if (!metricsFile.isEmpty()) {
+            city.getMetrics().export(Path.of(metricsFile));
+            System.out.println("City metrics exported to " + metricsFile);
         }
-        return threads;
     }
 }
\ No newline at end of file
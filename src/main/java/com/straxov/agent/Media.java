@@ -1,23 +1,28 @@
 package com.straxov.agent;
 
-import com.straxov.logger.Logger;
+import com.straxov.logger.LogLine;
 import com.straxov.city.City;
 import com.straxov.entitiy.Bank;
-import com.straxov.entitiy.Spender;
-import com.straxov.entitiy.Worker;
+import com.straxov.entitiy.Client;
+
+import java.util.List;
 
 /**
  * Media is a daemon thread that periodically prints and logs the state of the city (banks, workers, spenders).
  */
 public class Media extends Thread {
+    private final City city;
     private final int interval;
+    private final LogLine report = new LogLine();
     private volatile boolean running = true;
 
     /**
-     * Constructs a Media thread with the specified interval.
+     * Constructs a Media thread reporting on the given city with the specified interval.
+     * @param city the city to report on
      * @param interval interval in milliseconds between reports
      */
-    public Media(int interval) {
+    public Media(City city, int interval) {
+        this.city = city;
         this.interval = interval;
         setDaemon(true);
     }
@@ -46,54 +51,40 @@ public class Media extends Thread {
 
     /**
      * Prints and logs the current state of the city.
+     * The report is built in a line the media keeps between reports.
      */
     private void printCityState() {
-        City city = City.getInstance();
-        int total = 0;
-        StringBuilder sb = new StringBuilder();
+        LogLine report = this.report.clear();
 
-        sb.append("Good news for everyone! Total amount money in city is: ")
-                .append(getTotalMoney(city))
+        report.append("Good news for everyone! Total amount money in city is: ")
+                .append(city.getTotalMoney())
                 .append("$\n");
 
-        for (Bank bank : city.getBanks()) {
-            sb.append("This ")
+        List<Bank> banks = city.getBanks();
+        for (int i = 0, n = banks.size(); i < n; i++) {
+            Bank bank = banks.get(i);
+            report.append("This ")
                     .append(bank.getName())
                     .append(" has money: ")
                     .append(bank.getMoney().get())
                     .append("$\n");
         }
 
-        for (Worker worker : city.getWorkers()) {
-            sb.append("This ")
-                    .append(worker.getName())
-                    .append(" has money: ")
-                    .append(worker.getMoney())
-                    .append("$\n");
-        }
+        appendClients(report, city.getWorkers());
+        appendClients(report, city.getSpenders());
+
+        report.print();
+        report.prepend("Media summary:\n").log();
+    }
 
-        for (Spender spender : city.getSpenders()) {
-            sb.append("This ")
-                    .append(spender.getName())
+    private static void appendClients(LogLine report, List<? extends Client> clients) {
+        for (int i = 0, n = clients.size(); i < n; i++) {
+            Client client = clients.get(i);
+            report.append("This ")
+                    .append(client.getName())
                     .append(" has money: ")
-                    .append(spender.getMoney())
+                    .append(client.getMoney())
                     .append("$\n");
         }
-
-        String report = sb.toString();
-        System.out.print(report);
-        Logger.log("Media summary:\n" + report);
-    }
-
-    /**
-     * Calculates the total amount of money in the city.
-     * @return total money
-     */
-    private int getTotalMoney(City city) {
-        int total = 0;
-        for (Bank bank : city.getBanks()) total += bank.getMoney().get();
-        for (Worker worker : city.getWorkers()) total += worker.getMoney();
-        for (Spender spender : city.getSpenders()) total += spender.getMoney();
-        return total;
     }
 }
\ No newline at end of file
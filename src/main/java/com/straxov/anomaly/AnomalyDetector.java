@@ -0,0 +1,217 @@
+package com.straxov.anomaly;
+
+import com.straxov.entitiy.Bank;
+import com.straxov.entitiy.Client;
+import com.straxov.logger.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Streaming anomaly detector fed by every loan and deposit.
+ * Keeps lock-free sliding windows per bank and per client and checks them inline, so an alert is raised
+ * within microseconds of the transaction that caused it. Detected anomalies:
+ * <ul>
+ *     <li>a bank's loan volume in the current bucket is a z-score outlier against the rest of its window;</li>
+ *     <li>a client borrowed more than the configured limit within the window;</li>
+ *     <li>a bank's reserves fell below the configured floor after a loan.</li>
+ * </ul>
+ * Windows are created when the city registers its banks and clients, so a transaction only looks them up.
+ * Detection times are kept as a maximum and a histogram with power-of-two buckets, for percentiles.
+ */
+public class AnomalyDetector {
+    private final int buckets;
+    private final long bucketMillis;
+    private final double zScoreThreshold;
+    private final long clientLoanLimit;
+    private final int reserveFloor;
+    private final Map<Bank, Windows> bankWindows = new ConcurrentHashMap<>();
+    private final Map<Client, Windows> clientWindows = new ConcurrentHashMap<>();
+    private final AtomicLong alerts = new AtomicLong();
+    private final AtomicLong maxDetectionNanos = new AtomicLong();
+    private final AtomicLongArray detectionCounts = new AtomicLongArray(Long.SIZE);
+    private volatile AnomalyListener listener = (subject, reason) -> Logger.log("ANOMALY " + subject + ": " + reason);
+
+    /**
+     * Creates a detector.
+     *
+     * @param buckets         number of buckets per window
+     * @param bucketMillis    bucket duration in milliseconds
+     * @param zScoreThreshold z-score above which bank loan volume is anomalous
+     * @param clientLoanLimit maximum amount a client may borrow within one window
+     * @param reserveFloor    bank reserves below which an alert is raised
+     */
+    public AnomalyDetector(int buckets, long bucketMillis, double zScoreThreshold, long clientLoanLimit, int reserveFloor) {
+        this.buckets = buckets;
+        this.bucketMillis = bucketMillis;
+        this.zScoreThreshold = zScoreThreshold;
+        this.clientLoanLimit = clientLoanLimit;
+        this.reserveFloor = reserveFloor;
+    }
+
+    /**
+     * Replaces the listener receiving alerts; the default one logs them.
+     *
+     * @param listener the new listener
+     */
+    public void setListener(AnomalyListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Creates the windows of a bank ahead of its first transaction; registering a bank again is a no-op.
+     *
+     * @param bank the bank to watch
+     */
+    public void register(Bank bank) {
+        windows(bankWindows, bank);
+    }
+
+    /**
+     * Creates the windows of a client ahead of its first transaction; registering a client again is a no-op.
+     *
+     * @param client the client to watch
+     */
+    public void register(Client client) {
+        windows(clientWindows, client);
+    }
+
+    /**
+     * Feeds a loan issued by a bank to a client.
+     *
+     * @param bank   the lending bank
+     * @param client the borrowing client
+     * @param amount the loan amount
+     */
+    public void onLoan(Bank bank, Client client, int amount) {
+        long started = System.nanoTime();
+        long now = System.currentTimeMillis();
+        Windows bankStats = windows(bankWindows, bank);
+        long epoch = bankStats.loans.add(now, amount);
+        double zScore = bankStats.loans.zScore(epoch);
+        boolean volumeAlert = zScore > zScoreThreshold && bankStats.loans.claimAlert(epoch);
+        int reserves = bank.getMoney().get();
+        boolean reserveAlert = reserves < reserveFloor && claim(bankStats.reserveAlertEpoch, epoch);
+        Windows clientStats = windows(clientWindows, client);
+        clientStats.loans.add(now, amount);
+        long borrowed = clientStats.loans.sum(epoch);
+        boolean clientAlert = borrowed > clientLoanLimit && clientStats.loans.claimAlert(epoch);
+        recordLatency(started);
+
+        if (volumeAlert) {
+            raise(bank.getName(), "loan volume z-score " + String.format("%.1f", zScore)
+                    + ", " + String.format("%.1f", bankStats.loans.rate(epoch)) + " loans/s");
+        }
+        if (reserveAlert) {
+            raise(bank.getName(), "reserves down to " + reserves + "$ after a loan to " + client.getName());
+        }
+        if (clientAlert) {
+            raise(client.getName(), "borrowed " + borrowed + "$ within " + buckets * bucketMillis + "ms");
+        }
+    }
+
+    /**
+     * Feeds a deposit accepted by a bank from a client.
+     *
+     * @param bank   the receiving bank
+     * @param client the depositing client
+     * @param amount the deposit amount
+     */
+    public void onDeposit(Bank bank, Client client, int amount) {
+        long started = System.nanoTime();
+        long now = System.currentTimeMillis();
+        windows(bankWindows, bank).deposits.add(now, amount);
+        windows(clientWindows, client).deposits.add(now, amount);
+        recordLatency(started);
+    }
+
+    /**
+     * Gets the number of alerts raised so far.
+     *
+     * @return alert count
+     */
+    public long getAlertCount() {
+        return alerts.get();
+    }
+
+    /**
+     * Gets the longest time spent deciding on one transaction, excluding the listener.
+     *
+     * @return the maximum detection time in nanoseconds
+     */
+    public long getMaxDetectionNanos() {
+        return maxDetectionNanos.get();
+    }
+
+    /**
+     * Gets an upper bound of the given percentile of detection times, excluding the listener.
+     * The bound is the power of two ending the histogram bucket the percentile falls into, or the longest
+     * detection time seen if that is lower.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the percentile's upper bound in nanoseconds, or 0 if no transaction was checked
+     */
+    public long getDetectionNanosPercentile(double percentile) {
+        long total = 0;
+        for (int i = 0; i < Long.SIZE; i++) {
+            total += detectionCounts.get(i);
+        }
+        long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < Long.SIZE; i++) {
+            seen += detectionCounts.get(i);
+            if (seen >= rank && seen > 0) return Math.min(1L << i, maxDetectionNanos.get());
+        }
+        return 0;
+    }
+
+    /**
+     * Forgets the detection times seen so far, e.g. to measure after a warm-up.
+     */
+    public void resetDetectionTimes() {
+        maxDetectionNanos.set(0);
+        for (int i = 0; i < Long.SIZE; i++) {
+            detectionCounts.set(i, 0);
+        }
+    }
+
+    private <K> Windows windows(Map<K, Windows> map, K key) {
+        Windows windows = map.get(key);
+        return windows != null ? windows : map.computeIfAbsent(key, k -> new Windows(buckets, bucketMillis));
+    }
+
+    private void raise(String subject, String reason) {
+        alerts.incrementAndGet();
+        listener.onAnomaly(subject, reason);
+    }
+
+    private void recordLatency(long started) {
+        long elapsed = System.nanoTime() - started;
+        detectionCounts.incrementAndGet(Math.min(Long.SIZE - 1, Long.SIZE - Long.numberOfLeadingZeros(elapsed)));
+        long max;
+        do {
+            max = maxDetectionNanos.get();
+        } while (elapsed > max && !maxDetectionNanos.compareAndSet(max, elapsed));
+    }
+
+    private static boolean claim(AtomicLong lastAlertEpoch, long epoch) {
+        long last = lastAlertEpoch.get();
+        return last < epoch && lastAlertEpoch.compareAndSet(last, epoch);
+    }
+
+    /**
+     * Loan and deposit windows of one bank or client.
+     */
+    private static final class Windows {
+        private final SlidingWindow loans;
+        private final SlidingWindow deposits;
+        private final AtomicLong reserveAlertEpoch = new AtomicLong(-1);
+
+        private Windows(int buckets, long bucketMillis) {
+            this.loans = new SlidingWindow(buckets, bucketMillis);
+            this.deposits = new SlidingWindow(buckets, bucketMillis);
+        }
+    }
+}
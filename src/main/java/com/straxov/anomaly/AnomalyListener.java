@@ -0,0 +1,17 @@
+package com.straxov.anomaly;
+
+/**
+ * Receives alerts raised by the {@link AnomalyDetector}.
+ * Called synchronously on the thread that fed the offending transaction, so implementations must be quick.
+ */
+@FunctionalInterface
+public interface AnomalyListener {
+
+    /**
+     * Handles an alert.
+     *
+     * @param subject the name of the bank or client the alert is about
+     * @param reason  a human-readable description of the anomaly
+     */
+    void onAnomaly(String subject, String reason);
+}
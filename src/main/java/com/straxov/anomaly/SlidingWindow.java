@@ -0,0 +1,137 @@
+package com.straxov.anomaly;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free sliding window of event counts and sums split into fixed time buckets.
+ * Memory is bounded by the number of buckets; a bucket is recycled with a CAS on its epoch
+ * when time moves past it. Under races a recycled bucket may lose an event, which is acceptable for detection.
+ */
+public class SlidingWindow {
+    private final long bucketMillis;
+    private final int buckets;
+    private final AtomicLongArray epochs;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray sums;
+    private final AtomicLong lastAlertEpoch = new AtomicLong(-1);
+
+    /**
+     * Creates a sliding window.
+     *
+     * @param buckets      number of buckets, the window spans buckets * bucketMillis
+     * @param bucketMillis duration of one bucket in milliseconds
+     */
+    public SlidingWindow(int buckets, long bucketMillis) {
+        if (buckets < 2 || bucketMillis <= 0) {
+            throw new IllegalArgumentException("Need at least two buckets of positive duration");
+        }
+        this.buckets = buckets;
+        this.bucketMillis = bucketMillis;
+        this.epochs = new AtomicLongArray(buckets);
+        this.counts = new AtomicLongArray(buckets);
+        this.sums = new AtomicLongArray(buckets);
+        for (int i = 0; i < buckets; i++) {
+            epochs.set(i, -1);
+        }
+    }
+
+    /**
+     * Adds an event to the bucket of the given time.
+     *
+     * @param nowMillis event time in milliseconds
+     * @param amount    event amount
+     * @return the epoch of the bucket the event went to
+     */
+    public long add(long nowMillis, long amount) {
+        long epoch = nowMillis / bucketMillis;
+        int index = (int) (epoch % buckets);
+        long seen = epochs.get(index);
+        if (seen < epoch && epochs.compareAndSet(index, seen, epoch)) {
+            counts.set(index, 0);
+            sums.set(index, 0);
+        }
+        counts.incrementAndGet(index);
+        sums.addAndGet(index, amount);
+        return epoch;
+    }
+
+    /**
+     * Gets the number of events within the window ending at the given epoch.
+     *
+     * @param epoch the current epoch
+     * @return event count
+     */
+    public long count(long epoch) {
+        long total = 0;
+        for (int i = 0; i < buckets; i++) {
+            if (live(i, epoch)) total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Gets the sum of amounts within the window ending at the given epoch.
+     *
+     * @param epoch the current epoch
+     * @return amount sum
+     */
+    public long sum(long epoch) {
+        long total = 0;
+        for (int i = 0; i < buckets; i++) {
+            if (live(i, epoch)) total += sums.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Gets the event rate over the window ending at the given epoch.
+     *
+     * @param epoch the current epoch
+     * @return events per second
+     */
+    public double rate(long epoch) {
+        return count(epoch) * 1000.0 / (buckets * bucketMillis);
+    }
+
+    /**
+     * Computes the z-score of the current bucket sum against the previous buckets of the window.
+     * Buckets without events count as zero.
+     *
+     * @param epoch the current epoch
+     * @return the z-score, or 0 if the history has no variance yet
+     */
+    public double zScore(long epoch) {
+        int current = (int) (epoch % buckets);
+        double mean = 0;
+        double squares = 0;
+        int n = buckets - 1;
+        for (int i = 0; i < buckets; i++) {
+            if (i == current) continue;
+            double value = live(i, epoch) ? sums.get(i) : 0;
+            mean += value;
+            squares += value * value;
+        }
+        mean /= n;
+        double variance = Math.max(0, squares / n - mean * mean);
+        double value = live(current, epoch) ? sums.get(current) : 0;
+        double deviation = Math.sqrt(variance);
+        return deviation == 0 ? 0 : (value - mean) / deviation;
+    }
+
+    /**
+     * Claims the right to raise an alert for the given epoch, so each window alerts at most once per bucket.
+     *
+     * @param epoch the current epoch
+     * @return true if the caller should raise the alert
+     */
+    public boolean claimAlert(long epoch) {
+        long last = lastAlertEpoch.get();
+        return last < epoch && lastAlertEpoch.compareAndSet(last, epoch);
+    }
+
+    private boolean live(int index, long epoch) {
+        long bucketEpoch = epochs.get(index);
+        return bucketEpoch <= epoch && bucketEpoch > epoch - buckets;
+    }
+}
@@ -0,0 +1,243 @@
+package com.straxov.autoscale;
+
+import com.straxov.anomaly.SlidingWindow;
+import com.straxov.city.City;
+import com.straxov.entitiy.Bank;
+import com.straxov.entitiy.Spender;
+import com.straxov.entitiy.Worker;
+import com.straxov.logger.LogLine;
+import com.straxov.logger.Logger;
+import com.straxov.scheduler.TimingWheel;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Feedback controller scaling banks and workers of a running city.
+ * Banks report how long clients waited in their queue and spenders report how long their jobs waited for a
+ * worker, without the time the workforce spent on breaks. Every interval the controller compares both latencies with their targets through a {@link Hysteresis}
+ * band and opens or retires one bank or worker at a time. Retired entities stay in the city with their money and
+ * accounts and are reopened first; new ones are created through the city's {@link com.straxov.entitiy.EntityFactory}
+ * without initial money, so scaling never changes the amount of money in the city.
+ */
+public class Autoscaler implements Runnable {
+    private final City city;
+    private final long interval;
+    private final Hysteresis bankBand;
+    private final Hysteresis workerBand;
+    private final int minBanks;
+    private final int maxBanks;
+    private final int minWorkers;
+    private final int maxWorkers;
+    private final SlidingWindow bankWaits;
+    private final SlidingWindow hireWaits;
+    private final AtomicLong decisions = new AtomicLong();
+    private volatile boolean running = true;
+    private TimingWheel scheduler;
+
+    /**
+     * Creates a controller for the given city.
+     *
+     * @param city       the city to scale
+     * @param interval   evaluation interval in milliseconds; latencies are averaged over the last two intervals
+     * @param bankBand   hysteresis band of the bank queue wait in milliseconds
+     * @param workerBand hysteresis band of the hire wait in milliseconds
+     * @param minBanks   minimum number of active banks
+     * @param maxBanks   maximum number of active banks
+     * @param minWorkers minimum number of active workers
+     * @param maxWorkers maximum number of active workers
+     */
+    public Autoscaler(City city, long interval, Hysteresis bankBand, Hysteresis workerBand,
+                      int minBanks, int maxBanks, int minWorkers, int maxWorkers) {
+        if (minBanks < 1 || minWorkers < 1 || maxBanks < minBanks || maxWorkers < minWorkers) {
+            throw new IllegalArgumentException("Scaling bounds need at least one bank and one worker");
+        }
+        this.city = city;
+        this.interval = interval;
+        this.bankBand = bankBand;
+        this.workerBand = workerBand;
+        this.minBanks = minBanks;
+        this.maxBanks = maxBanks;
+        this.minWorkers = minWorkers;
+        this.maxWorkers = maxWorkers;
+        this.bankWaits = new SlidingWindow(2, interval);
+        this.hireWaits = new SlidingWindow(2, interval);
+    }
+
+    /**
+     * Starts periodic evaluation on the given scheduler.
+     *
+     * @param scheduler the scheduler driving the controller
+     */
+    public void start(TimingWheel scheduler) {
+        this.scheduler = scheduler;
+        scheduler.submit(this, interval);
+    }
+
+    /**
+     * Stops periodic evaluation.
+     */
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * Records how long a client waited in a bank queue.
+     *
+     * @param waitNanos the wait in nanoseconds
+     */
+    public void recordBankWait(long waitNanos) {
+        bankWaits.add(System.currentTimeMillis(), waitNanos / 1000);
+    }
+
+    /**
+     * Records how long a spender's job waited for a worker to take it, with break time left out.
+     *
+     * @param waitNanos the wait in nanoseconds
+     */
+    public void recordHireWait(long waitNanos) {
+        hireWaits.add(System.currentTimeMillis(), waitNanos / 1000);
+    }
+
+    /**
+     * Gets the number of scaling actions taken so far.
+     *
+     * @return decision count
+     */
+    public long getDecisionCount() {
+        return decisions.get();
+    }
+
+    /**
+     * Evaluates both latencies, scales if needed and schedules the next evaluation.
+     */
+    @Override
+    public void run() {
+        if (!running) return;
+        long now = System.currentTimeMillis();
+        long epoch = now / interval;
+        double bankWait = averageMillis(bankWaits, epoch);
+        double hireWait = Math.max(averageMillis(hireWaits, epoch), longestSearchMillis());
+
+        int bankDirection = bankBand.observe(bankWait, now);
+        if (bankDirection != 0 && scaleBanks(bankDirection, bankWait)) {
+            bankBand.acted(now);
+        }
+        int workerDirection = workerBand.observe(hireWait, now);
+        if (workerDirection != 0 && scaleWorkers(workerDirection, hireWait)) {
+            workerBand.acted(now);
+        }
+        scheduler.submit(this, interval);
+    }
+
+    /**
+     * Builds a report of the current scale and the actions taken.
+     *
+     * @return the autoscaling report
+     */
+    public String getReport() {
+        return "Autoscaler: " + decisions.get() + " scaling decisions, " + countActiveBanks() + "/"
+                + city.getBanks().size() + " banks and " + countActiveWorkers() + "/" + city.getWorkers().size()
+                + " workers active.";
+    }
+
+    private boolean scaleBanks(int direction, double waitMillis) {
+        List<Bank> banks = city.getBanks();
+        int active = countActiveBanks();
+        Bank changed = null;
+        if (direction > 0 && active < maxBanks) {
+            for (int i = 0, n = banks.size(); i < n && changed == null; i++) {
+                if (!banks.get(i).isActive()) changed = banks.get(i);
+            }
+            if (changed != null) {
+                changed.setActive(true);
+            } else {
+                changed = city.getFactory().createBank(0);
+                city.addBank(changed);
+            }
+        } else if (direction < 0 && active > minBanks) {
+            for (int i = banks.size() - 1; i >= 0 && changed == null; i--) {
+                if (banks.get(i).isActive()) changed = banks.get(i);
+            }
+            changed.setActive(false);
+        }
+        if (changed == null) return false;
+        logDecision(direction > 0 ? " opened " : " retired ", changed.getName(), "bank queue wait", waitMillis,
+                bankBand.getTarget(), direction > 0 ? active + 1 : active - 1, "banks");
+        return true;
+    }
+
+    private boolean scaleWorkers(int direction, double waitMillis) {
+        List<Worker> workers = city.getWorkers();
+        int active = countActiveWorkers();
+        Worker changed = null;
+        if (direction > 0 && active < maxWorkers) {
+            for (int i = 0, n = workers.size(); i < n && changed == null; i++) {
+                if (!workers.get(i).isActive()) changed = workers.get(i);
+            }
+            if (changed != null) {
+                changed.setActive(true);
+            } else {
+                changed = city.getFactory().createWorker(0, city.getConfig().getWorkerSalary(),
+                        city.getConfig().getWorkerMoneyLimit());
+                city.addWorker(changed);
+            }
+        } else if (direction < 0 && active > minWorkers) {
+            for (int i = workers.size() - 1; i >= 0 && changed == null; i--) {
+                if (workers.get(i).isActive()) changed = workers.get(i);
+            }
+            changed.setActive(false);
+        }
+        if (changed == null) return false;
+        logDecision(direction > 0 ? " hired " : " retired ", changed.getName(), "hire wait", waitMillis,
+                workerBand.getTarget(), direction > 0 ? active + 1 : active - 1, "workers");
+        return true;
+    }
+
+    private void logDecision(String action, String entity, String metric, double waitMillis, double target,
+                             int activeAfter, String kind) {
+        decisions.incrementAndGet();
+        LogLine line = Logger.line().append("Autoscaler").append(action).append(entity).append(": ")
+                .append(metric).append(' ');
+        appendTenths(line, waitMillis).append("ms against a target of ");
+        appendTenths(line, target).append("ms, ").append(activeAfter).append(' ').append(kind).append(" active.").log();
+    }
+
+    private static LogLine appendTenths(LogLine line, double value) {
+        long tenths = Math.round(value * 10);
+        return line.append(tenths / 10).append('.').append(tenths % 10);
+    }
+
+    private double averageMillis(SlidingWindow window, long epoch) {
+        long count = window.count(epoch);
+        return count == 0 ? 0 : window.sum(epoch) / (double) count / 1000.0;
+    }
+
+    private double longestSearchMillis() {
+        long now = System.nanoTime();
+        long longest = 0;
+        List<Spender> spenders = city.getSpenders();
+        for (int i = 0, n = spenders.size(); i < n; i++) {
+            longest = Math.max(longest, spenders.get(i).getHireWait(now));
+        }
+        return longest / 1_000_000.0;
+    }
+
+    private int countActiveBanks() {
+        int count = 0;
+        List<Bank> banks = city.getBanks();
+        for (int i = 0, n = banks.size(); i < n; i++) {
+            if (banks.get(i).isActive()) count++;
+        }
+        return count;
+    }
+
+    private int countActiveWorkers() {
+        int count = 0;
+        List<Worker> workers = city.getWorkers();
+        for (int i = 0, n = workers.size(); i < n; i++) {
+            if (workers.get(i).isActive()) count++;
+        }
+        return count;
+    }
+}
\ No newline at end of file
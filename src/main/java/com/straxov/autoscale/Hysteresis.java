@@ -0,0 +1,80 @@
+package com.straxov.autoscale;
+
+/**
+ * Hysteresis band for one scaled resource.
+ * A value above the target asks for more capacity, a value below {@code target * lowWatermark} asks for less,
+ * and anything in between holds. A request only counts after it has been seen for {@code patience}
+ * evaluations in a row and outside the cooldown that follows every scaling action, so the controller does not
+ * oscillate around the target. Accessed by the controller thread only.
+ */
+public class Hysteresis {
+    private final double target;
+    private final double low;
+    private final int patience;
+    private final long cooldownMillis;
+    private int highStreak;
+    private int lowStreak;
+    private long quietUntil;
+
+    /**
+     * Creates a hysteresis band.
+     *
+     * @param target         the latency target; values above it ask to scale up
+     * @param lowWatermark   fraction of the target below which values ask to scale down
+     * @param patience       consecutive evaluations needed before acting
+     * @param cooldownMillis pause after each action during which no new action is proposed
+     */
+    public Hysteresis(double target, double lowWatermark, int patience, long cooldownMillis) {
+        if (target <= 0 || lowWatermark < 0 || lowWatermark >= 1 || patience < 1 || cooldownMillis < 0) {
+            throw new IllegalArgumentException("Invalid hysteresis band");
+        }
+        this.target = target;
+        this.low = target * lowWatermark;
+        this.patience = patience;
+        this.cooldownMillis = cooldownMillis;
+    }
+
+    /**
+     * Gets the latency target.
+     *
+     * @return the target
+     */
+    public double getTarget() {
+        return target;
+    }
+
+    /**
+     * Feeds one evaluation and proposes a direction.
+     *
+     * @param value     the measured value
+     * @param nowMillis the evaluation time in milliseconds
+     * @return 1 to scale up, -1 to scale down, 0 to hold
+     */
+    public int observe(double value, long nowMillis) {
+        if (value > target) {
+            highStreak++;
+            lowStreak = 0;
+        } else if (value < low) {
+            lowStreak++;
+            highStreak = 0;
+        } else {
+            highStreak = 0;
+            lowStreak = 0;
+        }
+        if (nowMillis < quietUntil) return 0;
+        if (highStreak >= patience) return 1;
+        if (lowStreak >= patience) return -1;
+        return 0;
+    }
+
+    /**
+     * Records that a proposal was acted on: starts the cooldown and clears both streaks.
+     *
+     * @param nowMillis the action time in milliseconds
+     */
+    public void acted(long nowMillis) {
+        quietUntil = nowMillis + cooldownMillis;
+        highStreak = 0;
+        lowStreak = 0;
+    }
+}
\ No newline at end of file
@@ -1,74 +1,297 @@
 package com.straxov.city;
 
+import com.straxov.anomaly.AnomalyDetector;
+import com.straxov.autoscale.Autoscaler;
+import com.straxov.autoscale.Hysteresis;
+import com.straxov.clearing.ClearingHouse;
+import com.straxov.ledger.InterestBatch;
 import com.straxov.loader.ConfigLoader;
+import com.straxov.market.JobMarket;
+import com.straxov.metrics.TimeSeriesStore;
 import com.straxov.entitiy.Bank;
 import com.straxov.entitiy.EntityFactory;
 import com.straxov.entitiy.Spender;
 import com.straxov.entitiy.Worker;
+import com.straxov.scheduler.TimingWheel;
+import com.straxov.shift.ShiftScheduler;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Singleton class representing the city, containing all banks, workers, and spenders.
+ * Class representing a city, containing all banks, workers, and spenders.
  * Responsible for initializing and providing access to all city entities.
+ * Every city has its own configuration, scheduler and id space, so independent cities can run side by side.
+ * Entity lists are copy-on-write, so the autoscaler can add banks and workers while clients read them.
+ * Once the city has warmed up, the hire, pay and deposit cycle does not allocate: timer entries, jobs, log lines
+ * and clearing slots are all reused, which keeps garbage collection pauses out of the latencies it measures.
  */
 public class City {
-    private static volatile City instance;
-    private List<Bank> banks = new ArrayList<>();
-    private List<Worker> workers = new ArrayList<>();
-    private List<Spender> spenders = new ArrayList<>();
-    private EntityFactory factory;
+    private static final int TIMERS_PER_WORKER = 4;
+    private static final int TIMERS_PER_SPENDER = 2;
+    private static final int TIMERS_PER_BANK = 2;
+    private static final int SERVICE_TIMERS = 16;
+    private final ConfigLoader config;
+    private final AtomicInteger bankIds = new AtomicInteger(1);
+    private final AtomicInteger workerIds = new AtomicInteger(1);
+    private final AtomicInteger spenderIds = new AtomicInteger(1);
+    private final AtomicLong chainIds = new AtomicLong(1);
+    private final List<Bank> banks = new CopyOnWriteArrayList<>();
+    private final List<Worker> workers = new CopyOnWriteArrayList<>();
+    private final List<Spender> spenders = new CopyOnWriteArrayList<>();
+    private final EntityFactory factory;
+    private final TimingWheel scheduler;
+    private final ClearingHouse clearingHouse;
+    private final TimeSeriesStore metrics;
+    private final AnomalyDetector anomalyDetector;
+    private final InterestBatch interestBatch;
+    private final Autoscaler autoscaler;
+    private final JobMarket jobMarket;
+    private final ShiftScheduler shiftScheduler;
 
     /**
-     * Private constructor initializes all city entities using configuration and factory.
+     * Creates a city and initializes all its entities using configuration and factory.
+     * Each kind of entity is created as one block, reading every configuration value once.
+     *
+     * @param config the configuration of this city
      */
-    private City() {
-        factory = new СityFactory();
-        for (int i = 0; i < ConfigLoader.getBanksCount(); i++) {
-            banks.add(factory.createBank(ConfigLoader.getBankInitialMoney()));
+    public City(ConfigLoader config) {
+        this.config = config;
+        clearingHouse = new ClearingHouse(banks, config.getClearingInterval());
+        metrics = new TimeSeriesStore(
+                this,
+                config.getMetricsSampleInterval(),
+                config.getMetricsTiers(),
+                config.getMetricsCapacity(),
+                config.getMetricsDownsampleFactor()
+        );
+        anomalyDetector = new AnomalyDetector(
+                config.getAnomalyWindowBuckets(),
+                config.getAnomalyBucketDuration(),
+                config.getAnomalyZScoreThreshold(),
+                config.getAnomalyClientLoanLimit(),
+                config.getAnomalyBankReserveFloor()
+        );
+        interestBatch = new InterestBatch(
+                this,
+                config.getLedgerBatchInterval(),
+                config.getLedgerInterestRateBps(),
+                config.getLedgerRepaymentInstallment(),
+                config.getLedgerSweepParallelism()
+        );
+        double lowWatermark = config.getAutoscaleLowWatermark();
+        int patience = config.getAutoscalePatience();
+        long cooldown = config.getAutoscaleCooldown();
+        autoscaler = new Autoscaler(
+                this,
+                config.getAutoscaleInterval(),
+                new Hysteresis(config.getAutoscaleBankWaitTarget(), lowWatermark, patience, cooldown),
+                new Hysteresis(config.getAutoscaleHireWaitTarget(), lowWatermark, patience, cooldown),
+                config.getAutoscaleMinBanks(),
+                config.getAutoscaleMaxBanks(),
+                config.getAutoscaleMinWorkers(),
+                config.getAutoscaleMaxWorkers()
+        );
+        jobMarket = new JobMarket(this, config.getMarketQueueCapacity(), config.getSpendersCount());
+        shiftScheduler = new ShiftScheduler(
+                this,
+                config.getShiftStagger(),
+                config.getShiftLunchAfter(),
+                config.getLunchDuration(),
+                config.getShiftDepositJitter()
+        );
+        factory = new СityFactory(this);
+        scheduler = new TimingWheel(
+                config.getSchedulerTickDuration(),
+                config.getSchedulerWheelSize(),
+                config.getSchedulerThreads()
+        );
+        int clientInitialMoney = config.getClientInitialMoney();
+        banks.addAll(factory.createBanks(config.getBanksCount(), config.getBankInitialMoney()));
+        workers.addAll(factory.createWorkers(
+                config.getWorkersCount(),
+                clientInitialMoney,
+                config.getWorkerSalary(),
+                config.getWorkerMoneyLimit()
+        ));
+        spenders.addAll(factory.createSpenders(config.getSpendersCount(), clientInitialMoney));
+    }
+
+    /**
+     * Starts the scheduler and kicks off all spenders; workers are driven by the jobs spenders post.
+     * Timer entries are reserved for as many tasks as the population can have outstanding at once.
+     */
+    public void start() {
+        registerAll();
+        scheduler.reserve(TIMERS_PER_WORKER * workers.size() + TIMERS_PER_SPENDER * spenders.size()
+                + TIMERS_PER_BANK * banks.size() + SERVICE_TIMERS);
+        scheduler.start();
+        jobMarket.start();
+        clearingHouse.start(scheduler);
+        metrics.start(scheduler);
+        interestBatch.start(scheduler);
+        if (config.isAutoscaleEnabled()) {
+            autoscaler.start(scheduler);
         }
-        for (int i = 0; i < ConfigLoader.getWorkersCount(); i++) {
-            workers.add(factory.createWorker(
-                    ConfigLoader.getClientInitialMoney(),
-                    ConfigLoader.getWorkerSalary(),
-                    ConfigLoader.getWorkerMoneyLimit()
-            ));
+        if (config.isShiftEnabled()) {
+            shiftScheduler.start(scheduler);
         }
-        for (int i = 0; i < ConfigLoader.getSpendersCount(); i++) {
-            spenders.add(factory.createSpender(ConfigLoader.getClientInitialMoney()));
+        for (Spender spender : spenders) {
+            scheduler.submit(spender, 0);
         }
     }
 
     /**
-     * Returns the singleton instance of the city using double-checked locking pattern.
+     * Registers every entity with the anomaly detector, so its windows exist before the first transaction.
+     */
+    private void registerAll() {
+        for (int i = 0, n = banks.size(); i < n; i++) anomalyDetector.register(banks.get(i));
+        for (int i = 0, n = workers.size(); i < n; i++) anomalyDetector.register(workers.get(i));
+        for (int i = 0, n = spenders.size(); i < n; i++) anomalyDetector.register(spenders.get(i));
+    }
+
+    /**
+     * Stops all clients, waits for in-flight actions to finish and runs a final clearing cycle.
      *
-     * @return the singleton City instance
+     * @throws InterruptedException if interrupted while waiting
      */
-    public static City getInstance() {
-        if (instance == null) {
-            synchronized (City.class) {
-                if (instance == null) {
-                    instance = new City();
-                }
-            }
-        }
-        return instance;
+    public void stop() throws InterruptedException {
+        workers.forEach(Worker::stopClient);
+        spenders.forEach(Spender::stopClient);
+        clearingHouse.stop();
+        metrics.stop();
+        interestBatch.stop();
+        autoscaler.stop();
+        shiftScheduler.stop();
+        scheduler.stop();
+        clearingHouse.settle();
+    }
+
+    /**
+     * Gets the configuration of this city.
+     *
+     * @return the city's configuration
+     */
+    public ConfigLoader getConfig() {
+        return config;
+    }
+
+    /**
+     * Allocates the next bank id in this city.
+     *
+     * @return a new bank id
+     */
+    public int nextBankId() {
+        return bankIds.getAndIncrement();
+    }
+
+    /**
+     * Reserves a contiguous block of bank ids in this city.
+     *
+     * @param count number of ids to reserve
+     * @return the first id of the block
+     */
+    public int nextBankIds(int count) {
+        return bankIds.getAndAdd(count);
+    }
+
+    /**
+     * Allocates the next worker id in this city.
+     *
+     * @return a new worker id
+     */
+    public int nextWorkerId() {
+        return workerIds.getAndIncrement();
+    }
+
+    /**
+     * Reserves a contiguous block of worker ids in this city.
+     *
+     * @param count number of ids to reserve
+     * @return the first id of the block
+     */
+    public int nextWorkerIds(int count) {
+        return workerIds.getAndAdd(count);
+    }
+
+    /**
+     * Allocates the next spender id in this city.
+     *
+     * @return a new spender id
+     */
+    public int nextSpenderId() {
+        return spenderIds.getAndIncrement();
+    }
+
+    /**
+     * Reserves a contiguous block of spender ids in this city.
+     *
+     * @param count number of ids to reserve
+     * @return the first id of the block
+     */
+    public int nextSpenderIds(int count) {
+        return spenderIds.getAndAdd(count);
+    }
+
+    /**
+     * Allocates the id correlating the phases of one hire, credit, work and deposit chain.
+     *
+     * @return a new chain id
+     */
+    public long nextChainId() {
+        return chainIds.getAndIncrement();
     }
 
     /**
-     * Gets the list of all banks in the city.
+     * Gets the factory creating the city's entities.
      *
-     * @return unmodifiable list of banks
+     * @return the entity factory
+     */
+    public EntityFactory getFactory() {
+        return factory;
+    }
+
+    /**
+     * Adds a bank to the running city.
+     *
+     * @param bank the new bank
+     */
+    public void addBank(Bank bank) {
+        metrics.register(bank);
+        anomalyDetector.register(bank);
+        scheduler.reserve(TIMERS_PER_BANK);
+        banks.add(bank);
+    }
+
+    /**
+     * Adds a worker to the running city; the worker starts looking for queued jobs right away
+     * and joins the lunch rotation if shifts are running.
+     *
+     * @param worker the new worker
+     */
+    public void addWorker(Worker worker) {
+        anomalyDetector.register(worker);
+        scheduler.reserve(TIMERS_PER_WORKER);
+        workers.add(worker);
+        shiftScheduler.enroll(worker);
+        worker.wake();
+    }
+
+    /**
+     * Gets the list of all banks in the city, including retired ones.
+     *
+     * @return list of banks
      */
     public List<Bank> getBanks() {
         return banks;
     }
 
     /**
-     * Gets the list of all workers in the city.
+     * Gets the list of all workers in the city, including retired ones.
      *
-     * @return unmodifiable list of workers
+     * @return list of workers
      */
     public List<Worker> getWorkers() {
         return workers;
@@ -77,12 +300,75 @@ public class City {
     /**
      * Gets the list of all spenders in the city.
      *
-     * @return unmodifiable list of spenders
+     * @return list of spenders
      */
     public List<Spender> getSpenders() {
         return spenders;
     }
 
+    /**
+     * Gets the scheduler that drives all delayed client actions in the city.
+     *
+     * @return the city's timing wheel
+     */
+    public TimingWheel getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Gets the interbank clearing house of the city.
+     *
+     * @return the city's clearing house
+     */
+    public ClearingHouse getClearingHouse() {
+        return clearingHouse;
+    }
+
+    /**
+     * Gets the time-series store sampling the city state.
+     *
+     * @return the city's metrics
+     */
+    public TimeSeriesStore getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the detector watching the city's loans and deposits.
+     *
+     * @return the city's anomaly detector
+     */
+    public AnomalyDetector getAnomalyDetector() {
+        return anomalyDetector;
+    }
+
+    /**
+     * Gets the marketplace where spenders post jobs for workers.
+     *
+     * @return the city's job market
+     */
+    public JobMarket getJobMarket() {
+        return jobMarket;
+    }
+
+    /**
+     * Gets the controller scaling banks and workers.
+     *
+     * @return the city's autoscaler
+     */
+    public Autoscaler getAutoscaler() {
+        return autoscaler;
+    }
+
+    /**
+     * Gets the scheduler of worker shifts and breaks.
+     *
+     * @return the city's shift scheduler
+     */
+    public ShiftScheduler getShiftScheduler() {
+        return shiftScheduler;
+    }
+
     /**
      * Calculates the total amount of money in circulation in the city.
      * Includes money from all banks, workers and spenders.
@@ -102,4 +388,4 @@ public class City {
         }
         return total;
     }
-}
\ No newline at end of file
+}
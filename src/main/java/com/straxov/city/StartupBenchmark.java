@@ -0,0 +1,104 @@
+package com.straxov.city;
+
+import com.straxov.entitiy.Bank;
+import com.straxov.entitiy.EntityFactory;
+import com.straxov.entitiy.Spender;
+import com.straxov.entitiy.Worker;
+import com.straxov.loader.ConfigLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reports city startup time against population size.
+ * Compares bulk parallel construction with creating the same entities one by one. Both sides time only the
+ * creation of the entities into an already constructed, empty city, and every population is run untimed first
+ * so both code paths are compiled before they are measured.
+ */
+public class StartupBenchmark {
+    private static final int[] POPULATIONS = {1_000, 10_000, 100_000, 1_000_000};
+    private static final int ROUNDS = 3;
+    private static final int WARM_UP_ROUNDS = 2;
+
+    /**
+     * Entry point of the benchmark.
+     *
+     * @param args Command line arguments (not used)
+     */
+    public static void main(String[] args) {
+        ConfigLoader base = new ConfigLoader();
+        base.loadFromPropertiesFile("src/main/resources/config.properties");
+
+        System.out.println(String.format("%12s %14s %14s %12s", "population", "bulk ms", "one by one ms", "ns/entity"));
+        for (int population : POPULATIONS) {
+            ConfigLoader config = base
+                    .withOverride("banks.count", String.valueOf(Math.max(1, population / 100)))
+                    .withOverride("workers.count", String.valueOf(population / 2))
+                    .withOverride("spenders.count", String.valueOf(population / 2));
+            for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+                timeBulk(config);
+                timeOneByOne(config);
+            }
+            long bulk = Long.MAX_VALUE;
+            long single = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                bulk = Math.min(bulk, timeBulk(config));
+                single = Math.min(single, timeOneByOne(config));
+            }
+            System.out.println(String.format("%12d %14.2f %14.2f %12.1f",
+                    population, bulk / 1e6, single / 1e6, bulk / (double) population));
+        }
+    }
+
+    private static long timeBulk(ConfigLoader config) {
+        City city = emptyCity(config);
+        EntityFactory factory = new СityFactory(city);
+        long start = System.nanoTime();
+        List<Bank> banks = factory.createBanks(config.getBanksCount(), config.getBankInitialMoney());
+        List<Worker> workers = factory.createWorkers(
+                config.getWorkersCount(),
+                config.getClientInitialMoney(),
+                config.getWorkerSalary(),
+                config.getWorkerMoneyLimit()
+        );
+        List<Spender> spenders = factory.createSpenders(config.getSpendersCount(), config.getClientInitialMoney());
+        long elapsed = System.nanoTime() - start;
+        city.getBanks().addAll(banks);
+        city.getWorkers().addAll(workers);
+        city.getSpenders().addAll(spenders);
+        return elapsed;
+    }
+
+    private static long timeOneByOne(ConfigLoader config) {
+        City city = emptyCity(config);
+        EntityFactory factory = new СityFactory(city);
+        List<Bank> banks = new ArrayList<>();
+        List<Worker> workers = new ArrayList<>();
+        List<Spender> spenders = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < config.getBanksCount(); i++) {
+            banks.add(factory.createBank(config.getBankInitialMoney()));
+        }
+        for (int i = 0; i < config.getWorkersCount(); i++) {
+            workers.add(factory.createWorker(
+                    config.getClientInitialMoney(),
+                    config.getWorkerSalary(),
+                    config.getWorkerMoneyLimit()
+            ));
+        }
+        for (int i = 0; i < config.getSpendersCount(); i++) {
+            spenders.add(factory.createSpender(config.getClientInitialMoney()));
+        }
+        long elapsed = System.nanoTime() - start;
+        city.getBanks().addAll(banks);
+        city.getWorkers().addAll(workers);
+        city.getSpenders().addAll(spenders);
+        return elapsed;
+    }
+
+    private static City emptyCity(ConfigLoader config) {
+        return new City(config.withOverride("banks.count", "0")
+                .withOverride("workers.count", "0")
+                .withOverride("spenders.count", "0"));
+    }
+}
\ No newline at end of file
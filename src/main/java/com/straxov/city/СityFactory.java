@@ -1,16 +1,30 @@
 package com.straxov.city;
 
-import com.straxov.loader.ConfigLoader;
 import com.straxov.entitiy.Bank;
 import com.straxov.entitiy.EntityFactory;
 import com.straxov.entitiy.Spender;
 import com.straxov.entitiy.Worker;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * CityFactory is a concrete implementation of the EntityFactory interface.
  * It is responsible for creating instances of Bank, Worker, and Spender for the city simulation.
+ * Bulk methods reserve a contiguous block of ids and construct the whole block in parallel.
  */
 public class СityFactory implements EntityFactory {
+    private final City city;
+
+    /**
+     * Creates a factory producing entities for the given city.
+     *
+     * @param city the city that owns created entities and their ids
+     */
+    public СityFactory(City city) {
+        this.city = city;
+    }
+
     /**
      * Creates a new Bank with the specified initial amount of money.
      *
@@ -19,7 +33,7 @@ public class СityFactory implements EntityFactory {
      */
     @Override
     public Bank createBank(int initialMoney) {
-        return new Bank(initialMoney);
+        return new Bank(city, city.nextBankId(), initialMoney);
     }
 
     /**
@@ -32,18 +46,66 @@ public class СityFactory implements EntityFactory {
      */
     @Override
     public Worker createWorker(int initialMoney, int salary, int moneyLimit) {
-        return new Worker(initialMoney, salary, moneyLimit);
+        return new Worker(city, city.nextWorkerId(), initialMoney, salary, moneyLimit);
     }
 
     /**
-     * Creates a new Spender with the specified initial money and salary from config.
+     * Creates a new Spender with the specified initial money and salary from the city config.
      *
      * @param initialMoney the initial amount of money for the spender
      * @return a new Spender instance
      */
     @Override
     public Spender createSpender(int initialMoney) {
-        int salary = ConfigLoader.getWorkerSalary();
-        return new Spender(initialMoney, salary);
+        int salary = city.getConfig().getWorkerSalary();
+        return new Spender(city, city.nextSpenderId(), initialMoney, salary);
+    }
+
+    /**
+     * Creates a block of Banks in parallel.
+     *
+     * @param count        number of banks to create
+     * @param initialMoney the initial amount of money for each bank
+     * @return the created banks in id order
+     */
+    @Override
+    public List<Bank> createBanks(int count, int initialMoney) {
+        int firstId = city.nextBankIds(count);
+        Bank[] banks = new Bank[count];
+        Arrays.parallelSetAll(banks, i -> new Bank(city, firstId + i, initialMoney));
+        return Arrays.asList(banks);
+    }
+
+    /**
+     * Creates a block of Workers in parallel.
+     *
+     * @param count        number of workers to create
+     * @param initialMoney the initial amount of money for each worker
+     * @param salary       the salary amount for each worker
+     * @param moneyLimit   the savings limit for each worker to deposit in the bank
+     * @return the created workers in id order
+     */
+    @Override
+    public List<Worker> createWorkers(int count, int initialMoney, int salary, int moneyLimit) {
+        int firstId = city.nextWorkerIds(count);
+        Worker[] workers = new Worker[count];
+        Arrays.parallelSetAll(workers, i -> new Worker(city, firstId + i, initialMoney, salary, moneyLimit));
+        return Arrays.asList(workers);
+    }
+
+    /**
+     * Creates a block of Spenders in parallel, with salary from the city config.
+     *
+     * @param count        number of spenders to create
+     * @param initialMoney the initial amount of money for each spender
+     * @return the created spenders in id order
+     */
+    @Override
+    public List<Spender> createSpenders(int count, int initialMoney) {
+        int firstId = city.nextSpenderIds(count);
+        int salary = city.getConfig().getWorkerSalary();
+        Spender[] spenders = new Spender[count];
+        Arrays.parallelSetAll(spenders, i -> new Spender(city, firstId + i, initialMoney, salary));
+        return Arrays.asList(spenders);
     }
 }
\ No newline at end of file
@@ -0,0 +1,306 @@
+package com.straxov.clearing;
+
+import com.straxov.entitiy.Bank;
+import com.straxov.logger.Logger;
+import com.straxov.scheduler.TimingWheel;
+import com.straxov.transfer.Account;
+import com.straxov.transfer.Transfers;
+
+import java.util.List;
+
+/**
+ * Interbank clearing house.
+ * A bank short of reserves for a loan pays what it has and another bank pays the rest straight to the client;
+ * no money moves between the banks at that point. The lender's part is only recorded as an obligation of the
+ * bank pair, so liquidity flows in both directions cancel out. Each settlement cycle nets all obligations
+ * of a pair into at most one transfer, so settlement costs O(bank pairs) instead of O(transactions).
+ *
+ * <p>Obligations live in a primitive open-addressing table keyed by the pair of bank ids, with the net amount,
+ * count and age of each pair in parallel arrays guarded by the clearing house's monitor. A pair gets its slot the
+ * first time it trades and keeps it; settling updates its columns in place.</p>
+ */
+public class ClearingHouse implements Runnable {
+    private static final long EMPTY = 0;
+    private static final int INITIAL_PAIRS = 64;
+
+    private final List<Bank> banks;
+    private final long interval;
+    private long[] pairKeys;
+    private Bank[] pairLow;
+    private Bank[] pairHigh;
+    private long[] pairNet;
+    private long[] pairCount;
+    private long[] pairOldest;
+    private int pairMask;
+    private int pairSize;
+    private final Account[] legs = new Account[3];
+    private final int[] legDeltas = new int[3];
+    private Bank[] candidates = new Bank[0];
+    private int[] candidateReserves = new int[0];
+    private volatile boolean running = true;
+    private TimingWheel scheduler;
+
+    private long cycles;
+    private long recordedCount;
+    private long settlementCount;
+    private long settledAmount;
+    private long latencyNanosTotal;
+    private long latencyNanosMax;
+
+    /**
+     * Creates a clearing house for the given banks.
+     *
+     * @param banks    the banks taking part in clearing
+     * @param interval settlement cycle interval in milliseconds
+     */
+    public ClearingHouse(List<Bank> banks, long interval) {
+        this.banks = banks;
+        this.interval = interval;
+        allocatePairs(INITIAL_PAIRS);
+    }
+
+    /**
+     * Starts periodic settlement cycles on the given scheduler.
+     *
+     * @param scheduler the scheduler driving settlement cycles
+     */
+    public void start(TimingWheel scheduler) {
+        this.scheduler = scheduler;
+        scheduler.submit(this, interval);
+    }
+
+    /**
+     * Runs a settlement cycle and schedules the next one.
+     */
+    @Override
+    public void run() {
+        if (!running) return;
+        settle();
+        scheduler.submit(this, interval);
+    }
+
+    /**
+     * Stops scheduling settlement cycles. Call {@link #settle()} afterwards to clear what is left.
+     */
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * Pays out a loan the lending bank cannot cover from its reserves. The bank pays what it has and a lender
+     * pays the shortfall, both straight to the client in one transfer; the shortfall is recorded as an
+     * obligation of the bank to the lender. Lenders are tried from the largest reserves down until one can
+     * cover the shortfall.
+     *
+     * @param borrower the bank short of reserves
+     * @param client   the client receiving the loan
+     * @param amount   the loan amount
+     * @return true if the loan was paid out, false if no bank could cover the shortfall
+     */
+    public synchronized boolean fund(Bank borrower, Account client, int amount) {
+        int own = Math.max(0, Math.min(amount, borrower.getMoney().get()));
+        int shortfall = amount - own;
+        if (shortfall == 0) {
+            return Transfers.transfer(borrower, client, amount);
+        }
+        int count = rankLenders(borrower);
+        for (int i = 0; i < count && candidateReserves[i] >= shortfall; i++) {
+            Bank lender = candidates[i];
+            legs[0] = borrower;
+            legs[1] = lender;
+            legs[2] = client;
+            legDeltas[0] = -own;
+            legDeltas[1] = -shortfall;
+            legDeltas[2] = amount;
+            if (Transfers.execute(legs, legDeltas)) {
+                record(borrower, lender, shortfall);
+                Logger.line().append(borrower.getName()).append(" borrowed ").append(shortfall).append("$ from ")
+                        .append(lender.getName()).append(" through the clearing house.").log();
+                clearCandidates(count);
+                return true;
+            }
+        }
+        clearCandidates(count);
+        return false;
+    }
+
+    /**
+     * Fills the candidate arrays with all other banks, ordered by their reserves from the largest down.
+     *
+     * @param borrower the bank looking for a lender
+     * @return the number of candidates
+     */
+    private int rankLenders(Bank borrower) {
+        int n = banks.size();
+        if (candidates.length < n) {
+            candidates = new Bank[n];
+            candidateReserves = new int[n];
+        }
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            Bank bank = banks.get(i);
+            if (bank == borrower) continue;
+            int reserves = bank.getMoney().get();
+            int k = count++;
+            while (k > 0 && candidateReserves[k - 1] < reserves) {
+                candidates[k] = candidates[k - 1];
+                candidateReserves[k] = candidateReserves[k - 1];
+                k--;
+            }
+            candidates[k] = bank;
+            candidateReserves[k] = reserves;
+        }
+        return count;
+    }
+
+    private void clearCandidates(int count) {
+        for (int i = 0; i < count; i++) {
+            candidates[i] = null;
+        }
+        legs[0] = legs[1] = legs[2] = null;
+    }
+
+    /**
+     * Records that the debtor owes the creditor the given amount.
+     *
+     * @param debtor   the owing bank
+     * @param creditor the bank owed
+     * @param amount   the amount owed
+     */
+    public synchronized void record(Bank debtor, Bank creditor, int amount) {
+        Bank low = debtor.getId() < creditor.getId() ? debtor : creditor;
+        Bank high = low == debtor ? creditor : debtor;
+        int slot = pairSlot(low, high);
+        if (pairCount[slot] == 0 && pairNet[slot] == 0) pairOldest[slot] = System.nanoTime();
+        pairNet[slot] += low == debtor ? amount : -amount;
+        pairCount[slot]++;
+    }
+
+    /**
+     * Runs one settlement cycle: nets every bank pair and moves at most one payment per pair.
+     * Obligations the debtor cannot cover yet are carried over to the next cycle.
+     * The netting ratio and settlement latency only account for obligations resolved in a cycle.
+     */
+    public synchronized void settle() {
+        long now = System.nanoTime();
+        long cycleRecorded = 0;
+        long cycleSettlements = 0;
+        long cycleAmount = 0;
+        for (int slot = 0; slot < pairKeys.length; slot++) {
+            long net = pairNet[slot];
+            long count = pairCount[slot];
+            if (count == 0 && net == 0) continue;
+            if (net == 0) {
+                pairCount[slot] = 0;
+                cycleRecorded += count;
+                continue;
+            }
+            Bank low = pairLow[slot];
+            Bank high = pairHigh[slot];
+            Bank debtor = net > 0 ? low : high;
+            Bank creditor = debtor == low ? high : low;
+            int owed = (int) Math.abs(net);
+            int paid = Transfers.transferUpTo(debtor, creditor, owed);
+            if (paid == 0) continue;
+            cycleRecorded += count;
+            cycleSettlements++;
+            cycleAmount += paid;
+            long latency = now - pairOldest[slot];
+            latencyNanosTotal += latency;
+            latencyNanosMax = Math.max(latencyNanosMax, latency);
+            pairNet[slot] = debtor == low ? owed - paid : paid - owed;
+            pairCount[slot] = 0;
+        }
+        cycles++;
+        recordedCount += cycleRecorded;
+        settlementCount += cycleSettlements;
+        settledAmount += cycleAmount;
+        if (cycleRecorded > 0) {
+            Logger.line().append("Clearing cycle ").append(cycles).append(": ").append(cycleRecorded)
+                    .append(" obligations netted into ").append(cycleSettlements).append(" settlements of ")
+                    .append(cycleAmount).append("$.").log();
+        }
+    }
+
+    /**
+     * Gets the share of recorded obligations that did not need their own settlement transfer.
+     *
+     * @return netting ratio between 0 and 1
+     */
+    public synchronized double getNettingRatio() {
+        return recordedCount == 0 ? 0 : 1.0 - (double) settlementCount / recordedCount;
+    }
+
+    /**
+     * Builds a report of clearing activity so far.
+     *
+     * @return the clearing report
+     */
+    public synchronized String getReport() {
+        long averageMs = settlementCount == 0 ? 0 : latencyNanosTotal / settlementCount / 1_000_000;
+        return "Clearing house: " + cycles + " cycles, " + recordedCount + " obligations, "
+                + settlementCount + " settlements of " + settledAmount + "$, netting ratio "
+                + String.format("%.2f", getNettingRatio()) + ", settlement latency avg " + averageMs
+                + "ms max " + latencyNanosMax / 1_000_000 + "ms.";
+    }
+
+    /**
+     * Finds the slot of a bank pair, opening it if needed.
+     *
+     * @param low  the bank with the lower id
+     * @param high the bank with the higher id
+     * @return the slot index
+     */
+    private int pairSlot(Bank low, Bank high) {
+        long key = ((long) low.getId() << 32) | high.getId();
+        int slot = probe(pairKeys, key);
+        if (pairKeys[slot] == key) return slot;
+        if ((pairSize + 1) * 2 > pairKeys.length) {
+            growPairs();
+            slot = probe(pairKeys, key);
+        }
+        pairKeys[slot] = key;
+        pairLow[slot] = low;
+        pairHigh[slot] = high;
+        pairSize++;
+        return slot;
+    }
+
+    private int probe(long[] keys, long key) {
+        int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & pairMask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & pairMask;
+        }
+        return slot;
+    }
+
+    private void growPairs() {
+        long[] oldKeys = pairKeys;
+        Bank[] oldLow = pairLow;
+        Bank[] oldHigh = pairHigh;
+        long[] oldNet = pairNet;
+        long[] oldCount = pairCount;
+        long[] oldOldest = pairOldest;
+        allocatePairs(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int slot = probe(pairKeys, oldKeys[i]);
+            pairKeys[slot] = oldKeys[i];
+            pairLow[slot] = oldLow[i];
+            pairHigh[slot] = oldHigh[i];
+            pairNet[slot] = oldNet[i];
+            pairCount[slot] = oldCount[i];
+            pairOldest[slot] = oldOldest[i];
+        }
+    }
+
+    private void allocatePairs(int capacity) {
+        pairKeys = new long[capacity];
+        pairLow = new Bank[capacity];
+        pairHigh = new Bank[capacity];
+        pairNet = new long[capacity];
+        pairCount = new long[capacity];
+        pairOldest = new long[capacity];
+        pairMask = capacity - 1;
+    }
+}
\ No newline at end of file
@@ -1,44 +1,88 @@
 package com.straxov.entitiy;
 
+import com.straxov.city.City;
+import com.straxov.ledger.AccountTable;
 import com.straxov.logger.Logger;
+import com.straxov.trace.Tracer;
+import com.straxov.transfer.Account;
+import com.straxov.transfer.Transfers;
 
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The Bank class simulates a bank that can serve only one client at a time.
  * The bank can issue loans and accept deposits.
+ * Arriving clients join a FIFO queue and are served one after another by tasks on the city scheduler, so no
+ * thread waits for its turn; each client learns the outcome through {@link Client#bankServed}.
+ * When its reserves do not cover a loan, another bank pays the shortfall through the clearing house.
+ * Every loan and deposit is fed to the city's anomaly detector and recorded on the client's account.
  */
-public class Bank implements Runnable {
-    private static final AtomicInteger idCounter = new AtomicInteger(1);
+public class Bank implements Account {
     private final int id;
-    private final String name;
+    private String name;
     private final AtomicInteger money;
-    private volatile boolean running = true;
-    private boolean busy = false;
+    private final City city;
+    private volatile boolean busy = false;
+    private volatile boolean active = true;
+    private volatile long loanCount;
+    private volatile long depositCount;
+    private volatile long arrivalCount;
+    private volatile int queueDepth;
+    private volatile int peakQueueDepth;
+    private volatile long queueDepthTotal;
+    private volatile long outstandingPrincipal;
+    private volatile long interestRepaid;
     private final Object lock = new Object();
+    private Client queueHead;
+    private Client queueTail;
+    private boolean interestDue;
+    private int interestRateBps;
+    private int interestInstallment;
+    private ForkJoinPool interestPool;
+    private final Runnable server = this::serveNext;
+    private final AccountTable accounts;
 
     /**
      * Creates a new bank with initial amount of money.
      *
+     * @param city         the city the bank operates in
+     * @param id           the bank's id, unique within its city
      * @param initialMoney the initial amount of money
      */
-    public Bank(int initialMoney) {
-        this.id = idCounter.getAndIncrement();
-        this.name = "Bank - " + id;
+    public Bank(City city, int id, int initialMoney) {
+        this.city = city;
+        this.id = id;
         this.money = new AtomicInteger(initialMoney);
+        this.accounts = new AccountTable(id, 16);
     }
 
     /**
-     * Returns the bank's name.
+     * Returns the bank's id.
+     *
+     * @return the bank's id
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the bank's name, deriving it from the id on first use.
      *
      * @return the bank's name
      */
     public String getName() {
-        return name;
+        String result = name;
+        if (result == null) {
+            result = "Bank - " + id;
+            name = result;
+        }
+        return result;
     }
 
     /**
-     * Returns the AtomicInteger representing the bank's money.
+     * Returns the AtomicInteger representing the bank's money, for lock-free reads.
+     * Changes must go through {@link Transfers}.
      *
      * @return the bank's money
      */
@@ -47,56 +91,329 @@ public class Bank implements Runnable {
     }
 
     /**
-     * Stops the bank's operation.
+     * Checks if the bank accepts clients. A retired bank keeps its reserves and accounts
+     * and still lends to other banks through the clearing house.
+     *
+     * @return true if active
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Opens or retires the bank. Clients already waiting in the queue of a retired bank are turned away.
+     *
+     * @param active true to accept clients, false to retire
+     */
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    /**
+     * Checks if the bank is serving a client or running an interest sweep right now.
+     *
+     * @return true if busy
+     */
+    public boolean isBusy() {
+        return busy;
+    }
+
+    /**
+     * Returns the number of clients at the bank, waiting or being served.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * Returns the longest queue an arriving client found at the bank.
+     *
+     * @return the peak queue depth
+     */
+    public int getPeakQueueDepth() {
+        return peakQueueDepth;
+    }
+
+    /**
+     * Returns the sum of the queue depths found by arriving clients; divided by the arrival count it gives
+     * the average depth a client had to wait behind.
+     *
+     * @return the total queue depth seen on arrival
+     */
+    public long getQueueDepthTotal() {
+        return queueDepthTotal;
+    }
+
+    /**
+     * Returns the number of clients that came to the bank so far, served or not.
+     *
+     * @return the arrival count
+     */
+    public long getArrivalCount() {
+        return arrivalCount;
+    }
+
+    /**
+     * Returns the number of loans issued so far.
+     *
+     * @return the loan count
+     */
+    public long getLoanCount() {
+        return loanCount;
+    }
+
+    /**
+     * Returns the number of deposits accepted so far.
+     *
+     * @return the deposit count
+     */
+    public long getDepositCount() {
+        return depositCount;
+    }
+
+    /**
+     * Returns the outstanding loan principal of a client.
+     *
+     * @param client the client
+     * @return the client's principal
+     */
+    public long getPrincipal(Client client) {
+        synchronized (accounts) {
+            return accounts.getPrincipal(client);
+        }
+    }
+
+    /**
+     * Returns the total outstanding loan principal of all clients, as of the last loan or interest sweep.
+     *
+     * @return total principal
+     */
+    public long getOutstandingPrincipal() {
+        return outstandingPrincipal;
+    }
+
+    /**
+     * Returns the repayments collected by all interest sweeps so far.
+     *
+     * @return the amount repaid
+     */
+    public long getInterestRepaid() {
+        return interestRepaid;
+    }
+
+    /**
+     * Accrues interest on all client loans and collects repayments into the reserves.
+     * The sweep takes a turn at the bank like a client: it runs right away on the calling thread if the bank
+     * is idle, and otherwise before the next client in the queue.
+     *
+     * @param rateBps     interest per batch in basis points of the principal
+     * @param installment maximum amount collected from each borrower
+     * @param pool        the pool the account table is swept on
      */
-    public void stopBank() {
-        running = false;
+    public void runInterestBatch(int rateBps, int installment, ForkJoinPool pool) {
+        boolean idle;
         synchronized (lock) {
-            lock.notifyAll();
+            interestRateBps = rateBps;
+            interestInstallment = installment;
+            interestPool = pool;
+            idle = !busy;
+            if (idle) {
+                busy = true;
+            } else {
+                interestDue = true;
+            }
+        }
+        if (idle) {
+            try {
+                sweep(rateBps, installment, pool);
+            } finally {
+                endTurn();
+            }
         }
     }
 
     /**
-     * Serves a client: issues a loan or accepts a deposit.
+     * Returns the bank's position in the transfer lock order.
+     *
+     * @return the lock order key
+     */
+    @Override
+    public long getLockOrder() {
+        return Transfers.lockOrder(Transfers.BANK, id);
+    }
+
+    /**
+     * Returns the bank's reserves.
+     *
+     * @return the reserves
+     */
+    @Override
+    public int getBalance() {
+        return money.get();
+    }
+
+    /**
+     * Changes the bank's reserves. Only called by {@link Transfers} while holding the bank's monitor, which
+     * keeps the reserves consistent for every transfer that holds it; with assertions on, this is checked.
+     *
+     * @param delta the amount to add, negative to subtract
+     */
+    @Override
+    public void applyDelta(int delta) {
+        assert Thread.holdsLock(this) : "reserves changed without holding the bank's monitor";
+        money.addAndGet(delta);
+    }
+
+    /**
+     * Puts a client in the queue for a loan or a deposit and returns right away.
+     * The client is served in arrival order; a loan that exceeds the reserves is covered by interbank borrowing
+     * or refused. The client is called back through {@link Client#bankServed} once served. A client must not
+     * queue again before that call.
      *
      * @param client   the client to serve
      * @param isCredit true if it's a loan; false if it's a deposit
      * @param amount   the transaction amount
-     * @throws InterruptedException if the thread is interrupted
      */
-    public void serve(Client client, boolean isCredit, int amount) throws InterruptedException {
+    public void serve(Client client, boolean isCredit, int amount) {
+        client.visitCredit = isCredit;
+        client.visitAmount = amount;
+        client.visitArrived = System.nanoTime();
+        boolean idle;
         synchronized (lock) {
-            while (busy && running) {
-                lock.wait();
-            }
-            if (!running) return;
-            busy = true;
-            if (isCredit) {
-                client.addMoney(amount);
-                money.addAndGet(-amount);
-                Logger.log(name + " issued a loan of " + amount + "$ to client " + client.getName() + ".");
+            int ahead = queueDepth;
+            arrivalCount++;
+            queueDepthTotal += ahead;
+            if (ahead > peakQueueDepth) peakQueueDepth = ahead;
+            queueDepth = ahead + 1;
+            if (queueTail == null) {
+                queueHead = client;
             } else {
-                client.removeMoney(amount);
-                money.addAndGet(amount);
-                Logger.log(name + " accepted a deposit of " + amount + "$ from client " + client.getName() + ".");
+                queueTail.bankNext = client;
             }
-            busy = false;
-            lock.notifyAll();
+            queueTail = client;
+            idle = !busy;
+            busy = true;
         }
+        if (idle) city.getScheduler().execute(server);
     }
 
     /**
-     * The main operation loop of the bank.
+     * Takes the next turn at the bank: a pending interest sweep first, then the client at the head of the queue.
+     * The following turn is handed to the scheduler before the client is resumed. A sweep or transaction that
+     * throws still ends the turn, and the client is told it was not served.
      */
-    @Override
-    public void run() {
-        while (running) {
+    private void serveNext() {
+        Client client = null;
+        boolean sweep;
+        int rateBps;
+        int installment;
+        ForkJoinPool pool;
+        synchronized (lock) {
+            sweep = interestDue;
+            interestDue = false;
+            rateBps = interestRateBps;
+            installment = interestInstallment;
+            pool = interestPool;
+            if (!sweep) {
+                client = queueHead;
+                if (client == null) {
+                    busy = false;
+                    return;
+                }
+                queueHead = client.bankNext;
+                if (queueHead == null) queueTail = null;
+                client.bankNext = null;
+            }
+        }
+        if (sweep) {
             try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                break;
+                sweep(rateBps, installment, pool);
+            } finally {
+                endTurn();
+            }
+            return;
+        }
+        boolean done = false;
+        try {
+            done = active && transact(client, client.visitCredit, client.visitAmount, client.visitArrived);
+        } finally {
+            synchronized (lock) {
+                queueDepth--;
+            }
+            endTurn();
+            client.bankServed(this, client.visitAmount, done);
+        }
+    }
+
+    /**
+     * Ends a turn: schedules the next one if a client or a sweep is waiting, otherwise marks the bank idle.
+     */
+    private void endTurn() {
+        synchronized (lock) {
+            if (queueHead == null && !interestDue) {
+                busy = false;
+                return;
             }
         }
-        System.out.println("Thread " + name + " has been stopped.");
+        city.getScheduler().execute(server);
+    }
+
+    /**
+     * Runs an interest sweep over the bank's accounts.
+     */
+    private void sweep(int rateBps, int installment, ForkJoinPool pool) {
+        synchronized (accounts) {
+            interestRepaid += accounts.accrueAndCollect(this, rateBps, installment, pool);
+            outstandingPrincipal = accounts.totalPrincipal();
+        }
+    }
+
+    /**
+     * Issues a loan or accepts a deposit for the client whose turn it is.
+     *
+     * @return true if the transaction took place
+     */
+    private boolean transact(Client client, boolean isCredit, int amount, long arrived) {
+        city.getAutoscaler().recordBankWait(System.nanoTime() - arrived);
+        Tracer.bankQueue(client.getChainId(), client.getName(), arrived, getName(), isCredit);
+        if (isCredit) {
+            if (!lend(client, amount)) {
+                Logger.line().append(getName()).append(" refused a loan of ").append(amount)
+                        .append("$ to client ").append(client.getName()).append('.').log();
+                return false;
+            }
+            loanCount++;
+            synchronized (accounts) {
+                accounts.addPrincipal(client, amount);
+                outstandingPrincipal += amount;
+            }
+            city.getAnomalyDetector().onLoan(this, client, amount);
+            Logger.line().append(getName()).append(" issued a loan of ").append(amount)
+                    .append("$ to client ").append(client.getName()).append('.').log();
+        } else {
+            if (!Transfers.transfer(client, this, amount)) return false;
+            depositCount++;
+            synchronized (accounts) {
+                accounts.addDeposit(client, amount);
+            }
+            city.getAnomalyDetector().onDeposit(this, client, amount);
+            Logger.line().append(getName()).append(" accepted a deposit of ").append(amount)
+                    .append("$ from client ").append(client.getName()).append('.').log();
+        }
+        return true;
+    }
+
+    /**
+     * Moves the loan to the client, with another bank paying the shortfall through the clearing house
+     * if the reserves do not cover it.
+     *
+     * @param client the borrowing client
+     * @param amount the loan amount
+     * @return true if the loan was paid out
+     */
+    private boolean lend(Client client, int amount) {
+        return Transfers.transfer(this, client, amount) || city.getClearingHouse().fund(this, client, amount);
     }
 }
\ No newline at end of file
@@ -1,33 +1,81 @@
 package com.straxov.entitiy;
 
+import com.straxov.city.City;
+import com.straxov.logger.Logger;
+import com.straxov.transfer.Account;
+import com.straxov.transfer.Transfers;
+
 /**
  * Abstract class representing a city client (either Worker or Spender).
- * Provides basic money management functionality and thread control mechanisms.
- * All money operations are thread-safe through synchronization.
+ * Provides basic money management functionality and lifecycle control.
+ * The balance is guarded by the client's monitor and only changes through {@link Transfers}.
  */
-public abstract class Client implements Runnable {
-    protected final String name;
+public abstract class Client implements Runnable, Account {
+    protected final City city;
+    protected final int id;
+    private final String namePrefix;
+    private String name;
     protected volatile int money;
     protected volatile boolean running = true;
+    protected volatile long chainId;
+    Client bankNext;
+    boolean visitCredit;
+    int visitAmount;
+    long visitArrived;
 
     /**
-     * Constructs a new Client with specified name and initial money amount.
+     * Constructs a new Client with specified id and initial money amount.
+     * The name is derived from the prefix and id on first use.
      *
-     * @param name         The client's identifier name
+     * @param city         The city the client lives in
+     * @param namePrefix   The prefix of the client's name, e.g. "Worker - "
+     * @param id           The client's id, unique within its kind and city
      * @param initialMoney Starting money amount for the client
      */
-    public Client(String name, int initialMoney) {
-        this.name = name;
+    public Client(City city, String namePrefix, int id, int initialMoney) {
+        this.city = city;
+        this.namePrefix = namePrefix;
+        this.id = id;
         this.money = initialMoney;
     }
 
     /**
-     * Gets the client's name.
+     * Gets the client's id.
+     *
+     * @return The client's id
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the key identifying the client's accounts in banks, unique across clients of all kinds in the city.
+     *
+     * @return The account key, never 0
+     */
+    public abstract long getAccountKey();
+
+    /**
+     * Gets the client's name, deriving it from the id on first use.
      *
      * @return The client's name string
      */
     public String getName() {
-        return name;
+        String result = name;
+        if (result == null) {
+            result = namePrefix + id;
+            name = result;
+        }
+        return result;
+    }
+
+    /**
+     * Gets the id of the hire, credit, work and deposit chain the client is currently working on.
+     *
+     * @return The current chain id
+     */
+    public long getChainId() {
+        return chainId;
     }
 
     /**
@@ -40,43 +88,54 @@ public abstract class Client implements Runnable {
     }
 
     /**
-     * Adds money to the client's balance (thread-safe).
+     * Gets the client's money without taking its monitor, for monitoring that must not slow the client down.
+     * A transfer in progress may not be visible yet.
      *
-     * @param amount Positive amount to add
+     * @return Current money balance, possibly one transfer behind
      */
-    public synchronized void addMoney(int amount) {
-        if (amount < 0) {
-            throw new IllegalArgumentException("Amount must be positive");
-        }
-        this.money += amount;
+    public int peekMoney() {
+        return money;
     }
 
     /**
-     * Deducts money from the client's balance (thread-safe).
+     * Gets the client's balance; transfers call it while holding the client's monitor.
      *
-     * @param amount Positive amount to deduct
-     * @throws IllegalStateException if deduction would result in negative balance
+     * @return Current money balance
      */
-    public synchronized void removeMoney(int amount) {
-        if (amount < 0) {
-            throw new IllegalArgumentException("Amount must be positive");
-        }
-        if (this.money < amount) {
-            throw new IllegalStateException("Insufficient funds");
-        }
-        this.money -= amount;
+    @Override
+    public synchronized int getBalance() {
+        return money;
+    }
+
+    /**
+     * Changes the client's balance. Only called by {@link Transfers} while holding the client's monitor.
+     *
+     * @param delta Amount to add, negative to subtract
+     */
+    @Override
+    public synchronized void applyDelta(int delta) {
+        this.money += delta;
     }
 
     /**
-     * Signals the client thread to stop execution.
-     * Actual termination depends on the run() implementation.
+     * Signals the client to stop. Already scheduled actions observe the flag and are not rescheduled.
      */
     public void stopClient() {
         running = false;
+        Logger.log(getName() + " has been stopped.");
     }
 
     /**
-     * Client behavior implementation (to be defined by subclasses).
+     * Resumes the client after a bank served it; called on a scheduler thread.
+     *
+     * @param bank   the bank that served the client
+     * @param amount the amount of the loan or deposit
+     * @param done   true if the transaction took place, false if the bank was retired or refused the loan
+     */
+    protected abstract void bankServed(Bank bank, int amount, boolean done);
+
+    /**
+     * Client behavior step (to be defined by subclasses), executed by the city scheduler.
      */
     @Override
     public abstract void run();
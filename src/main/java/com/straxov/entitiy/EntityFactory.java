@@ -1,5 +1,8 @@
 package com.straxov.entitiy;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Factory interface for creating simulation entities (Banks, Workers, and Spenders).
  * Provides creation methods for all major entity types in the economic simulation.
@@ -31,4 +34,54 @@ public interface EntityFactory {
      * @return A new Spender instance
      */
     Spender createSpender(int initialMoney);
+
+    /**
+     * Creates a block of Banks with the same initial capital.
+     * The default implementation creates them one by one.
+     *
+     * @param count        Number of banks to create
+     * @param initialMoney The starting amount of money for each bank
+     * @return The created banks in id order
+     */
+    default List<Bank> createBanks(int count, int initialMoney) {
+        List<Bank> banks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            banks.add(createBank(initialMoney));
+        }
+        return banks;
+    }
+
+    /**
+     * Creates a block of Workers with the same financial parameters.
+     * The default implementation creates them one by one.
+     *
+     * @param count        Number of workers to create
+     * @param initialMoney The starting money amount of each worker
+     * @param salary       The regular salary amount of each worker
+     * @param moneyLimit   The threshold at which each worker deposits money to bank
+     * @return The created workers in id order
+     */
+    default List<Worker> createWorkers(int count, int initialMoney, int salary, int moneyLimit) {
+        List<Worker> workers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            workers.add(createWorker(initialMoney, salary, moneyLimit));
+        }
+        return workers;
+    }
+
+    /**
+     * Creates a block of Spenders with the same initial money.
+     * The default implementation creates them one by one.
+     *
+     * @param count        Number of spenders to create
+     * @param initialMoney The starting money amount of each spender
+     * @return The created spenders in id order
+     */
+    default List<Spender> createSpenders(int count, int initialMoney) {
+        List<Spender> spenders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            spenders.add(createSpender(initialMoney));
+        }
+        return spenders;
+    }
 }
\ No newline at end of file
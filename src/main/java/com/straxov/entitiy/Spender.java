@@ -2,89 +2,158 @@ package com.straxov.entitiy;
 
 import com.straxov.city.City;
 import com.straxov.logger.Logger;
+import com.straxov.market.Job;
+import com.straxov.trace.Tracer;
+import com.straxov.transfer.Transfers;
 import com.straxov.util.Utils;
 
-import java.util.concurrent.atomic.AtomicInteger;
-
 /**
- * The Spender class models a spender who hires workers and pays them a salary.
- * If the spender runs out of money, they take a loan from a bank.
+ * The Spender class models a spender who posts jobs on the {@link com.straxov.market.JobMarket} and pays the
+ * worker taking a job a salary. If the spender runs out of money, they take a loan from a bank.
  */
 public class Spender extends Client {
-    private static final AtomicInteger idCounter = new AtomicInteger(1);
-    private final int id;
     private final int salary;
-    private final Object lock = new Object();
+    private Job job;
+    private long postedBreakNanos;
+    private volatile long searchingSince;
+    private long creditStart;
+    private int creditAttempts;
 
     /**
      * Constructs a new Spender with the specified initial money and salary for workers.
      *
+     * @param city         the city the spender lives in
+     * @param id           the spender's id, unique within the city
      * @param initialMoney the initial amount of money
      * @param salary       the salary to pay to a worker
      */
-    public Spender(int initialMoney, int salary) {
-        super("Spender - " + idCounter.get(), initialMoney);
-        this.id = idCounter.getAndIncrement();
+    public Spender(City city, int id, int initialMoney, int salary) {
+        super(city, "Spender - ", id, initialMoney);
         this.salary = salary;
     }
 
     /**
-     * Gets the unique id of this spender.
+     * Gets the key of this spender's bank accounts.
      *
-     * @return the spender's id
+     * @return the account key
      */
-    public int getId() {
-        return id;
+    @Override
+    public long getAccountKey() {
+        return (2L << 32) | id;
     }
 
     /**
-     * The main loop of the spender's behavior.
-     * The spender looks for a free worker, pays them a salary, and if needed, takes a loan from a bank.
+     * Gets the spender's position in the transfer lock order.
+     *
+     * @return the lock order key
+     */
+    @Override
+    public long getLockOrder() {
+        return Transfers.lockOrder(Transfers.SPENDER, id);
+    }
+
+    /**
+     * Checks if the spender has a job posted that no worker has started yet.
+     *
+     * @return true if a job is waiting for a worker
+     */
+    public boolean hasPendingJob() {
+        return searchingSince != 0;
+    }
+
+    /**
+     * Gets how long the job waiting for a worker has waited so far, leaving out the share of the wait the
+     * workforce spent on breaks.
+     *
+     * @param now the current time from System.nanoTime()
+     * @return the wait in nanoseconds, or 0 if no job is waiting
+     */
+    public long getHireWait(long now) {
+        long since = searchingSince;
+        return since == 0 ? 0 : workingWait(since, now);
+    }
+
+    /**
+     * Performs one step of the spender's behavior.
+     * The spender queues at a bank for a loan if they cannot cover a salary and resumes once served;
+     * with the salary covered, they post a job on the market.
+     * There is no polling for workers: the next step is scheduled when a worker has taken the job.
      */
     @Override
     public void run() {
-        while (running) {
-            try {
-                Worker worker = null;
-                while (worker == null && running) {
-                    for (Worker w : City.getInstance().getWorkers()) {
-                        if (!w.isBusy()) {
-                            worker = w;
-                            break;
-                        }
-                    }
-                    if (worker == null) {
-                        Thread.sleep(50);
-                    }
-                }
-                if (!running) break;
-                synchronized (worker) {
-                    worker.setBusy(true);
-                    if (getMoney() < salary) {
-                        boolean credited = false;
-                        while (!credited && running) {
-                            Bank bank = Utils.getRandom(City.getInstance().getBanks());
-                            try {
-                                bank.serve(this, true, salary);
-                                credited = true;
-                            } catch (InterruptedException e) {
-                                Thread.sleep(50);
-                            }
-                        }
-                    }
-                    removeMoney(salary);
-                    worker.receiveSalary(salary);
-                    Logger.log(name + " paid salary to worker " + worker.getName() + " in the amount of " + salary + "$.");
-                    synchronized (worker) {
-                        worker.notifyAll();
-                    }
-                }
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
+        if (!running) return;
+        if (creditAttempts == 0) {
+            chainId = city.nextChainId();
+        }
+        if (getMoney() < salary) {
+            if (creditAttempts == 0) {
+                creditStart = System.nanoTime();
             }
+            creditAttempts++;
+            Bank bank = Utils.getRandomFree(city.getBanks(), Bank::isActive);
+            if (bank == null) {
+                city.getScheduler().submit(this, 50);
+            } else {
+                bank.serve(this, true, salary);
+            }
+            return;
+        }
+        if (creditAttempts > 0) {
+            Tracer.credit(chainId, getName(), creditStart, creditAttempts, salary);
+            creditAttempts = 0;
+        }
+        if (job == null) {
+            job = new Job(this, salary);
+        }
+        long now = System.nanoTime();
+        job.prepare(chainId, now);
+        postedBreakNanos = city.getShiftScheduler().getBreakNanos(now);
+        searchingSince = now;
+        city.getJobMarket().post(job);
+    }
+
+    /**
+     * Resumes the spender after a bank served the loan request: right away with the loan, or after a back-off
+     * if it was refused.
+     *
+     * @param bank   the bank
+     * @param amount the loan amount
+     * @param done   true if the loan was issued
+     */
+    @Override
+    protected void bankServed(Bank bank, int amount, boolean done) {
+        if (!running) return;
+        if (done) {
+            city.getScheduler().execute(this);
+        } else {
+            city.getScheduler().submit(this, 50);
         }
-        System.out.println("Thread " + name + " has been stopped.");
+    }
+
+    /**
+     * Called by the worker starting the spender's job. After a paid start the spender pauses before posting
+     * the next job; if the salary could not be collected the spender goes for a loan right away.
+     *
+     * @param worker the worker who took the job
+     * @param paid   true if the worker collected the salary
+     */
+    public void jobTaken(Worker worker, boolean paid) {
+        long postedAt = job.getPostedAt();
+        searchingSince = 0;
+        if (paid) {
+            city.getAutoscaler().recordHireWait(workingWait(postedAt, System.nanoTime()));
+            Tracer.workerSearch(job.getChainId(), getName(), postedAt);
+            Logger.line().append(getName()).append(" paid salary to worker ").append(worker.getName())
+                    .append(" in the amount of ").append(salary).append("$.").log();
+        }
+        if (running) {
+            city.getScheduler().submit(this, paid ? 100 : 0);
+        }
+    }
+
+    private long workingWait(long since, long now) {
+        long away = (city.getShiftScheduler().getBreakNanos(now) - postedBreakNanos)
+                / Math.max(1, city.getWorkers().size());
+        return Math.max(0, now - since - away);
     }
 }
\ No newline at end of file
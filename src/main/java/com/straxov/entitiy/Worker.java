@@ -1,115 +1,323 @@
 package com.straxov.entitiy;
 
 import com.straxov.city.City;
-import com.straxov.loader.ConfigLoader;
 import com.straxov.logger.Logger;
+import com.straxov.market.Job;
+import com.straxov.market.JobDeque;
+import com.straxov.market.JobMarket;
+import com.straxov.trace.Tracer;
+import com.straxov.transfer.Transfers;
 import com.straxov.util.Utils;
 
-import java.util.concurrent.atomic.AtomicInteger;
-
 /**
- * The Worker class models a worker who can be hired by only one spender at a time.
- * The worker receives a salary, works, and when their savings reach a limit, deposits the money in a bank.
+ * The Worker class models a worker taking jobs from the {@link JobMarket}.
+ * Jobs are queued in a small bounded deque of the worker and run one at a time; the worker collects the salary
+ * when starting a job, and when their savings reach a limit, deposits the money in a bank.
+ * Work does not occupy a thread: job completion is a timer entry in the city scheduler.
+ * The city's {@link com.straxov.shift.ShiftScheduler} sends workers on breaks and spreads their deposits in time.
  */
 public class Worker extends Client {
-    private static final AtomicInteger idCounter = new AtomicInteger(1);
-    private final int id;
     private final int salary;
     private final int moneyLimit;
     private volatile boolean busy = false;
+    private volatile boolean active = true;
+    private volatile boolean onBreak = false;
+    private volatile boolean depositPending = false;
     private final Object lock = new Object();
+    private final Runnable starter = this::startNext;
+    private JobDeque jobs;
+    private volatile int queued;
+    private volatile long workNanos;
+    private long jobChainId;
+    private long jobStart;
+    private long depositStart;
+    private int depositAttempts;
+    private final Runnable depositTask = this::deposit;
 
     /**
      * Constructs a new Worker.
      *
+     * @param city         the city the worker lives in
+     * @param id           the worker's id, unique within the city
      * @param initialMoney initial amount of money
      * @param salary       salary amount
      * @param moneyLimit   savings limit for depositing to the bank
      */
-    public Worker(int initialMoney, int salary, int moneyLimit) {
-        super("Worker - " + idCounter.get(), initialMoney);
-        this.id = idCounter.getAndIncrement();
+    public Worker(City city, int id, int initialMoney, int salary, int moneyLimit) {
+        super(city, "Worker - ", id, initialMoney);
         this.salary = salary;
         this.moneyLimit = moneyLimit;
     }
 
     /**
-     * Gets the unique id of this worker.
+     * Gets the key of this worker's bank accounts.
      *
-     * @return the worker's id
+     * @return the account key
      */
-    public int getId() {
-        return id;
+    @Override
+    public long getAccountKey() {
+        return (1L << 32) | id;
     }
 
     /**
-     * Checks if the worker is currently busy (hired).
+     * Gets the worker's position in the transfer lock order.
+     *
+     * @return the lock order key
+     */
+    @Override
+    public long getLockOrder() {
+        return Transfers.lockOrder(Transfers.WORKER, id);
+    }
+
+    /**
+     * Checks if the worker is currently busy: working on a job or about to pick one up.
      *
      * @return true if busy, false otherwise
      */
     public boolean isBusy() {
+        return busy;
+    }
+
+    /**
+     * Gets the number of jobs queued at the worker, read without locking.
+     *
+     * @return queued job count
+     */
+    public int getQueuedJobs() {
+        return queued;
+    }
+
+    /**
+     * Gets the total time the worker spent on finished jobs.
+     *
+     * @return working time in nanoseconds
+     */
+    public long getWorkNanos() {
+        return workNanos;
+    }
+
+    /**
+     * Checks if the worker takes new jobs.
+     *
+     * @return true if active, false if retired
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Checks if the worker is off shift or at lunch.
+     *
+     * @return true if on a break
+     */
+    public boolean isOnBreak() {
+        return onBreak;
+    }
+
+    /**
+     * Sends the worker on a break or back to work. Like retirement, a break lets the current job and deposit
+     * finish and hands queued jobs back to the market; unlike retirement, it does not change the autoscaler's
+     * worker count, and the time spent on breaks is left out of the hire waits the autoscaler sees.
+     *
+     * @param onBreak true to stop taking jobs, false to return to work
+     */
+    public void setOnBreak(boolean onBreak) {
+        this.onBreak = onBreak;
+        if (onBreak) {
+            handBackJobs();
+        } else {
+            wake();
+        }
+    }
+
+    /**
+     * Checks if the worker takes new jobs right now: active, not on a break and not stopped.
+     *
+     * @return true if jobs can be offered to the worker
+     */
+    public boolean acceptsJobs() {
+        return active && !onBreak && running;
+    }
+
+    /**
+     * Returns the worker to the job market or retires them. A returning worker starts looking for work right away.
+     * A retired worker finishes the current job and its deposit, takes no new jobs and hands queued ones back
+     * to the market.
+     *
+     * @param active true to take jobs, false to retire
+     */
+    public void setActive(boolean active) {
+        this.active = active;
+        if (active) {
+            wake();
+        } else {
+            handBackJobs();
+        }
+    }
+
+    /**
+     * Queues a job at the worker and wakes the worker if idle.
+     *
+     * @param job the job
+     * @return false if the worker is retired, on a break, stopped or has a full queue
+     */
+    public boolean offer(Job job) {
+        boolean idle;
         synchronized (lock) {
-            return busy;
+            if (!acceptsJobs()) return false;
+            if (jobs == null) jobs = new JobDeque(city.getJobMarket().getQueueCapacity());
+            if (!jobs.offerLast(job)) return false;
+            queued = jobs.size();
+            idle = !busy;
+            busy = true;
         }
+        if (idle) city.getScheduler().execute(starter);
+        return true;
     }
 
     /**
-     * Sets the busy status of the worker.
+     * Takes the oldest job queued at the worker on behalf of another worker, so stolen jobs do not overtake
+     * the ones posted before them.
      *
-     * @param busy true if busy, false otherwise
+     * @return the job, or null if none is queued
      */
-    public void setBusy(boolean busy) {
+    public Job steal() {
         synchronized (lock) {
-            this.busy = busy;
-            if (busy) {
-                lock.notifyAll();
-            }
+            if (jobs == null) return null;
+            Job job = jobs.pollFirst();
+            queued = jobs.size();
+            return job;
         }
     }
 
     /**
-     * Receives salary from a spender.
+     * Makes an idle worker look for work in the market.
      *
-     * @param amount the salary amount
+     * @return true if the worker was idle and is now looking for work
      */
-    public void receiveSalary(int amount) {
-        addMoney(amount);
+    public boolean wake() {
+        synchronized (lock) {
+            if (busy || !acceptsJobs()) return false;
+            busy = true;
+        }
+        city.getScheduler().execute(starter);
+        return true;
     }
 
     /**
-     * The main loop of the worker's behavior.
-     * The worker waits to be hired, works, and deposits money in the bank when the limit is reached.
+     * Completes the current job.
+     * Invoked by the city scheduler once the work duration has elapsed; the worker deposits money in the bank
+     * when the limit is reached and moves on to the next job.
      */
     @Override
     public void run() {
-        while (running) {
-            try {
-                synchronized (lock) {
-                    while (!busy && running) {
-                        lock.wait();
-                    }
-                }
-                if (!running) break;
-                Thread.sleep(ConfigLoader.getWorkerWorkDuration());
-                setBusy(false);
-                if (getMoney() >= moneyLimit) {
-                    boolean deposited = false;
-                    while (!deposited && running) {
-                        Bank bank = Utils.getRandom(City.getInstance().getBanks());
-                        try {
-                            Logger.log(name + " deposited accumulated money to bank " + bank.getName() + " in the amount of " + getMoney() + "$.");
-                            bank.serve(this, false, getMoney());
-                            deposited = true;
-                        } catch (InterruptedException e) {
-                            Thread.sleep(50);
-                        }
-                    }
+        Tracer.work(jobChainId, getName(), jobStart);
+        workNanos += System.nanoTime() - jobStart;
+        if (running && !depositPending && getMoney() >= moneyLimit) {
+            chainId = jobChainId;
+            depositStart = System.nanoTime();
+            depositAttempts = 0;
+            depositPending = true;
+            long delay = city.getShiftScheduler().nextDepositDelay();
+            if (delay > 0) {
+                city.getScheduler().submit(depositTask, delay);
+            } else {
+                deposit();
+            }
+        }
+        startNext();
+    }
+
+    /**
+     * Starts the next job: from the worker's own queue, else from the market backlog, else stolen from another
+     * worker. Goes idle when there is nothing to do.
+     */
+    private void startNext() {
+        JobMarket market = city.getJobMarket();
+        while (true) {
+            Job job = null;
+            synchronized (lock) {
+                if (acceptsJobs() && jobs != null) {
+                    job = jobs.pollFirst();
+                    queued = jobs.size();
                 }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
             }
+            if (job == null && acceptsJobs()) {
+                job = market.take(this);
+            }
+            if (job != null) {
+                if (begin(job)) return;
+                continue;
+            }
+            synchronized (lock) {
+                if (acceptsJobs() && queued > 0) continue;
+                busy = false;
+            }
+            if (market.hasBacklog()) wake();
+            return;
+        }
+    }
+
+    /**
+     * Starts a job: takes the salary from the spender and schedules completion.
+     *
+     * @param job the job
+     * @return true if the job started, false if the spender could not pay
+     */
+    private boolean begin(Job job) {
+        Spender spender = job.getSpender();
+        if (!Transfers.transfer(spender, this, job.getSalary())) {
+            spender.jobTaken(this, false);
+            return false;
+        }
+        jobChainId = job.getChainId();
+        jobStart = System.nanoTime();
+        spender.jobTaken(this, true);
+        city.getScheduler().submit(this, city.getConfig().getWorkerWorkDuration());
+        return true;
+    }
+
+    /**
+     * Hands the jobs queued at the worker back to the market.
+     */
+    private void handBackJobs() {
+        Job job;
+        while ((job = steal()) != null) {
+            city.getJobMarket().post(job);
+        }
+    }
+
+    /**
+     * Queues at a random bank to deposit the accumulated money, retrying after a back-off if no bank is open.
+     */
+    private void deposit() {
+        if (!running) return;
+        Bank bank = Utils.getRandomFree(city.getBanks(), Bank::isActive);
+        depositAttempts++;
+        if (bank == null) {
+            city.getScheduler().submit(depositTask, 50);
+            return;
+        }
+        bank.serve(this, false, getMoney());
+    }
+
+    /**
+     * Completes a deposit once the bank served the worker, or queues again after a back-off if it was turned away.
+     *
+     * @param bank   the bank
+     * @param amount the deposit amount
+     * @param done   true if the bank accepted the deposit
+     */
+    @Override
+    protected void bankServed(Bank bank, int amount, boolean done) {
+        if (!done && running) {
+            city.getScheduler().submit(depositTask, 50);
+            return;
         }
-        System.out.println("Thread " + name + " has been stopped.");
+        depositPending = false;
+        if (!done) return;
+        Logger.line().append(getName()).append(" deposited accumulated money to bank ").append(bank.getName())
+                .append(" in the amount of ").append(amount).append("$.").log();
+        Tracer.deposit(chainId, getName(), depositStart, depositAttempts, amount);
     }
 }
@@ -0,0 +1,264 @@
+package com.straxov.ledger;
+
+import com.straxov.entitiy.Client;
+import com.straxov.transfer.Account;
+import com.straxov.transfer.Transfers;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Per-client accounts of one bank, stored in a primitive open-addressing hash table keyed by client account key.
+ * Columns (loan principal, deposits, accrued interest) live in parallel arrays, so a batch pass walks memory
+ * sequentially and splits into independent chunks. Not thread-safe: the owning bank serializes access.
+ */
+public class AccountTable {
+    private static final long EMPTY = 0;
+    private static final int CHUNK = 4096;
+    private static final int MILLIS_PER_DOLLAR = 1000;
+    private static final int CHUNK_BITS = 16;
+
+    private long[] keys;
+    private long[] principal;
+    private long[] deposits;
+    private long[] interestMillis;
+    private final int bankId;
+    private Client[] owners;
+    private Escrow[] escrows = new Escrow[0];
+    private Account[] creditLegs;
+    private int[] creditDeltas;
+    private int mask;
+    private int size;
+
+    /**
+     * Creates a table with room for the given number of accounts before it grows.
+     *
+     * @param bankId           id of the owning bank, used for the lock order of the sweep's escrows
+     * @param expectedAccounts expected number of accounts
+     */
+    public AccountTable(int bankId, int expectedAccounts) {
+        this.bankId = bankId;
+        int capacity = 16;
+        while (capacity < expectedAccounts * 2) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Adds to a client's outstanding loan principal, opening the account if needed.
+     *
+     * @param client the borrowing client
+     * @param amount the loan amount
+     */
+    public void addPrincipal(Client client, long amount) {
+        int index = slot(client);
+        principal[index] += amount;
+    }
+
+    /**
+     * Adds to a client's deposits, opening the account if needed.
+     *
+     * @param client the depositing client
+     * @param amount the deposit amount
+     */
+    public void addDeposit(Client client, long amount) {
+        int index = slot(client);
+        deposits[index] += amount;
+    }
+
+    /**
+     * Gets a client's outstanding loan principal.
+     *
+     * @param client the client
+     * @return the principal, or 0 if the client has no account
+     */
+    public long getPrincipal(Client client) {
+        int index = find(client.getAccountKey());
+        return index < 0 ? 0 : principal[index];
+    }
+
+    /**
+     * Gets a client's total deposits.
+     *
+     * @param client the client
+     * @return the deposits, or 0 if the client has no account
+     */
+    public long getDeposits(Client client) {
+        int index = find(client.getAccountKey());
+        return index < 0 ? 0 : deposits[index];
+    }
+
+    /**
+     * Gets the number of open accounts.
+     *
+     * @return number of accounts
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Sums the outstanding loan principal of all accounts.
+     *
+     * @return total principal
+     */
+    public long totalPrincipal() {
+        long total = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) total += principal[i];
+        }
+        return total;
+    }
+
+    /**
+     * Accrues interest on every loan and collects one repayment installment from every borrower.
+     * Interest is kept in thousandths of a dollar until it adds up to whole dollars of principal.
+     * The table is swept in independent chunks in parallel on the given pool, and the calling thread waits for
+     * the sweep to finish. Each chunk collects into its own escrow account,
+     * so chunks only lock their borrowers and never contend; the escrows are then credited to the bank in one
+     * multi-leg transfer. Until then the collected money is held by neither the borrowers nor the bank.
+     *
+     * @param bank        the bank account receiving repayments
+     * @param rateBps     interest per batch in basis points of the principal
+     * @param installment maximum amount collected from each borrower
+     * @param pool        the pool running the chunks
+     * @return the total amount repaid
+     */
+    public long accrueAndCollect(Account bank, int rateBps, int installment, ForkJoinPool pool) {
+        int chunks = (keys.length + CHUNK - 1) / CHUNK;
+        prepareEscrows(chunks);
+        long repaid = pool.submit(() -> IntStream.range(0, chunks)
+                .parallel()
+                .mapToLong(chunk -> sweep(escrows[chunk], chunk * CHUNK, Math.min(keys.length, (chunk + 1) * CHUNK), rateBps, installment))
+                .sum()).join();
+        if (repaid > 0) credit(bank, chunks, repaid);
+        return repaid;
+    }
+
+    private void prepareEscrows(int chunks) {
+        if (escrows.length == chunks) return;
+        escrows = new Escrow[chunks];
+        for (int i = 0; i < chunks; i++) {
+            escrows[i] = new Escrow(Transfers.lockOrder(Transfers.ESCROW, ((long) bankId << CHUNK_BITS) | i));
+        }
+        creditLegs = new Account[chunks + 1];
+        creditDeltas = new int[chunks + 1];
+    }
+
+    private void credit(Account bank, int chunks, long repaid) {
+        for (int i = 0; i < chunks; i++) {
+            creditLegs[i] = escrows[i];
+            creditDeltas[i] = -escrows[i].getBalance();
+        }
+        creditLegs[chunks] = bank;
+        creditDeltas[chunks] = Math.toIntExact(repaid);
+        if (!Transfers.execute(creditLegs, creditDeltas)) {
+            throw new IllegalStateException("Collected repayments could not be credited");
+        }
+    }
+
+    private long sweep(Account escrow, int from, int to, int rateBps, int installment) {
+        long repaid = 0;
+        for (int i = from; i < to; i++) {
+            if (keys[i] == EMPTY || principal[i] == 0) continue;
+            interestMillis[i] += principal[i] * rateBps * MILLIS_PER_DOLLAR / 10_000;
+            principal[i] += interestMillis[i] / MILLIS_PER_DOLLAR;
+            interestMillis[i] %= MILLIS_PER_DOLLAR;
+            int due = (int) Math.min(installment, principal[i]);
+            int paid = Transfers.transferUpTo(owners[i], escrow, due);
+            principal[i] -= paid;
+            repaid += paid;
+        }
+        return repaid;
+    }
+
+    private int slot(Client client) {
+        long key = client.getAccountKey();
+        int index = find(key);
+        if (index >= 0) return index;
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        index = probe(keys, key);
+        keys[index] = key;
+        owners[index] = client;
+        size++;
+        return index;
+    }
+
+    private int find(long key) {
+        int index = probe(keys, key);
+        return keys[index] == key ? index : -1;
+    }
+
+    private int probe(long[] table, long key) {
+        int index = hash(key) & mask;
+        while (table[index] != EMPTY && table[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldPrincipal = principal;
+        long[] oldDeposits = deposits;
+        long[] oldInterest = interestMillis;
+        Client[] oldOwners = owners;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int index = probe(keys, oldKeys[i]);
+            keys[index] = oldKeys[i];
+            principal[index] = oldPrincipal[i];
+            deposits[index] = oldDeposits[i];
+            interestMillis[index] = oldInterest[i];
+            owners[index] = oldOwners[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        principal = new long[capacity];
+        deposits = new long[capacity];
+        interestMillis = new long[capacity];
+        owners = new Client[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Account holding the repayments one chunk of a sweep collected until they are credited to the bank.
+     */
+    private static final class Escrow implements Account {
+        private final long lockOrder;
+        private int balance;
+
+        private Escrow(long lockOrder) {
+            this.lockOrder = lockOrder;
+        }
+
+        @Override
+        public long getLockOrder() {
+            return lockOrder;
+        }
+
+        @Override
+        public synchronized int getBalance() {
+            return balance;
+        }
+
+        @Override
+        public void applyDelta(int delta) {
+            assert Thread.holdsLock(this);
+            balance += delta;
+        }
+    }
+
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
@@ -0,0 +1,91 @@
+package com.straxov.ledger;
+
+import com.straxov.city.City;
+import com.straxov.entitiy.Bank;
+import com.straxov.logger.Logger;
+import com.straxov.scheduler.TimingWheel;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Periodic batch accruing interest on client loans and collecting repayments in every bank of a city.
+ * A busy bank runs its sweep at its next turn, so repayments of such a sweep show up in the following batch report.
+ * Sweeps split the account tables over a pool owned by the batch, so they do not compete with other users of the
+ * common pool.
+ */
+public class InterestBatch implements Runnable {
+    private final City city;
+    private final long interval;
+    private final int rateBps;
+    private final int installment;
+    private final int parallelism;
+    private volatile boolean running = true;
+    private TimingWheel scheduler;
+    private ForkJoinPool pool;
+    private long lastRepaid;
+
+    /**
+     * Creates an interest batch for the given city.
+     *
+     * @param city        the city whose banks are swept
+     * @param interval    interval between batches in milliseconds
+     * @param rateBps     interest per batch in basis points of the principal
+     * @param installment maximum amount collected from each borrower per batch
+     * @param parallelism number of sweep threads, 0 for one per available processor
+     */
+    public InterestBatch(City city, long interval, int rateBps, int installment, int parallelism) {
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("Sweep parallelism must not be negative");
+        }
+        this.city = city;
+        this.interval = interval;
+        this.rateBps = rateBps;
+        this.installment = installment;
+        this.parallelism = parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism;
+    }
+
+    /**
+     * Creates the sweep pool and starts periodic batches on the given scheduler.
+     *
+     * @param scheduler the scheduler driving the batches
+     */
+    public void start(TimingWheel scheduler) {
+        this.scheduler = scheduler;
+        pool = new ForkJoinPool(parallelism, InterestBatch::newSweeper, null, false);
+        scheduler.submit(this, interval);
+    }
+
+    /**
+     * Stops scheduling batches and shuts the sweep pool down once running sweeps are done.
+     */
+    public void stop() {
+        running = false;
+        if (pool != null) pool.shutdown();
+    }
+
+    /**
+     * Runs one batch over all banks and schedules the next one.
+     */
+    @Override
+    public void run() {
+        if (!running) return;
+        long repaid = 0;
+        long outstanding = 0;
+        for (Bank bank : city.getBanks()) {
+            bank.runInterestBatch(rateBps, installment, pool);
+            repaid += bank.getInterestRepaid();
+            outstanding += bank.getOutstandingPrincipal();
+        }
+        Logger.log("Interest batch collected " + (repaid - lastRepaid) + "$ of repayments, " + outstanding
+                + "$ of loans outstanding.");
+        lastRepaid = repaid;
+        scheduler.submit(this, interval);
+    }
+
+    private static ForkJoinWorkerThread newSweeper(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("Interest sweep - " + thread.getPoolIndex());
+        return thread;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,222 @@
+package com.straxov.live;
+
+/**
+ * Consistent view of a city's live state as read by {@link LiveStateReader}.
+ * Entity data is kept in parallel arrays in the order the city lists its entities.
+ */
+public final class LiveSnapshot {
+    private final long sequence;
+    private final long time;
+    private final long publishCount;
+    private final long totalLoans;
+    private final long totalDeposits;
+    private final int[] bankIds;
+    private final int[] bankMoney;
+    private final boolean[] bankBusy;
+    private final long[] bankLoans;
+    private final long[] bankDeposits;
+    private final Clients workers;
+    private final Clients spenders;
+
+    LiveSnapshot(long sequence, long time, long publishCount, long totalLoans, long totalDeposits,
+                 int[] bankIds, int[] bankMoney, boolean[] bankBusy, long[] bankLoans, long[] bankDeposits,
+                 Clients workers, Clients spenders) {
+        this.sequence = sequence;
+        this.time = time;
+        this.publishCount = publishCount;
+        this.totalLoans = totalLoans;
+        this.totalDeposits = totalDeposits;
+        this.bankIds = bankIds;
+        this.bankMoney = bankMoney;
+        this.bankBusy = bankBusy;
+        this.bankLoans = bankLoans;
+        this.bankDeposits = bankDeposits;
+        this.workers = workers;
+        this.spenders = spenders;
+    }
+
+    /**
+     * Gets the seqlock sequence the view was read at; it grows with every publication.
+     *
+     * @return the sequence
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gets the wall-clock time of the publication.
+     *
+     * @return publication time in milliseconds
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Gets the number of publications made by the exporter so far.
+     *
+     * @return publication count
+     */
+    public long getPublishCount() {
+        return publishCount;
+    }
+
+    /**
+     * Gets the number of loans issued by all banks.
+     *
+     * @return loan count
+     */
+    public long getTotalLoans() {
+        return totalLoans;
+    }
+
+    /**
+     * Gets the number of deposits accepted by all banks.
+     *
+     * @return deposit count
+     */
+    public long getTotalDeposits() {
+        return totalDeposits;
+    }
+
+    /**
+     * Gets the bank ids.
+     *
+     * @return bank ids
+     */
+    public int[] getBankIds() {
+        return bankIds;
+    }
+
+    /**
+     * Gets the bank reserves.
+     *
+     * @return reserves per bank
+     */
+    public int[] getBankMoney() {
+        return bankMoney;
+    }
+
+    /**
+     * Gets the flags of banks serving a client.
+     *
+     * @return busy flag per bank
+     */
+    public boolean[] getBankBusy() {
+        return bankBusy;
+    }
+
+    /**
+     * Gets the loans issued by each bank.
+     *
+     * @return loan count per bank
+     */
+    public long[] getBankLoans() {
+        return bankLoans;
+    }
+
+    /**
+     * Gets the deposits accepted by each bank.
+     *
+     * @return deposit count per bank
+     */
+    public long[] getBankDeposits() {
+        return bankDeposits;
+    }
+
+    /**
+     * Gets the workers' state; busy means working on a job.
+     *
+     * @return worker state
+     */
+    public Clients getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Gets the spenders' state; busy means the spender has a job waiting for a worker.
+     *
+     * @return spender state
+     */
+    public Clients getSpenders() {
+        return spenders;
+    }
+
+    /**
+     * Sums the money of all banks, workers and spenders.
+     *
+     * @return total money in the city
+     */
+    public long getTotalMoney() {
+        long total = 0;
+        for (int money : bankMoney) total += money;
+        for (int money : workers.money) total += money;
+        for (int money : spenders.money) total += money;
+        return total;
+    }
+
+    /**
+     * State of one kind of clients in parallel arrays.
+     */
+    public static final class Clients {
+        private final int[] ids;
+        private final int[] money;
+        private final boolean[] busy;
+        private final long[] chainIds;
+
+        Clients(int[] ids, int[] money, boolean[] busy, long[] chainIds) {
+            this.ids = ids;
+            this.money = money;
+            this.busy = busy;
+            this.chainIds = chainIds;
+        }
+
+        /**
+         * Gets the client ids.
+         *
+         * @return client ids
+         */
+        public int[] getIds() {
+            return ids;
+        }
+
+        /**
+         * Gets the client balances.
+         *
+         * @return money per client
+         */
+        public int[] getMoney() {
+            return money;
+        }
+
+        /**
+         * Gets the busy flags.
+         *
+         * @return busy flag per client
+         */
+        public boolean[] getBusy() {
+            return busy;
+        }
+
+        /**
+         * Gets the ids of the chains the clients are working on.
+         *
+         * @return chain id per client
+         */
+        public long[] getChainIds() {
+            return chainIds;
+        }
+
+        /**
+         * Counts busy clients.
+         *
+         * @return number of busy clients
+         */
+        public int countBusy() {
+            int count = 0;
+            for (boolean flag : busy) if (flag) count++;
+            return count;
+        }
+    }
+}
\ No newline at end of file
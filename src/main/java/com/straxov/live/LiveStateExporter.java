@@ -0,0 +1,168 @@
+package com.straxov.live;
+
+import com.straxov.city.City;
+import com.straxov.entitiy.Bank;
+import com.straxov.entitiy.Spender;
+import com.straxov.entitiy.Worker;
+import com.straxov.logger.Logger;
+import com.straxov.scheduler.TimingWheel;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static com.straxov.live.LiveStateLayout.*;
+
+/**
+ * Publishes the live state of a city into a memory-mapped file.
+ * Every publication copies balances, busy flags and counters of all banks and clients into the file under a
+ * seqlock, so external processes can map the same file with {@link LiveStateReader} and read consistent views
+ * without any IPC. The simulation is only read, never locked: balances are read from their volatile fields
+ * rather than through the clients' monitors, so publishing does not slow down clients.
+ * If a publication fails, the error is logged and the next one is still scheduled.
+ */
+public class LiveStateExporter implements Runnable, AutoCloseable {
+    private final City city;
+    private final long interval;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long sequence;
+    private long publishCount;
+    private volatile boolean running = true;
+    private TimingWheel scheduler;
+
+    /**
+     * Creates an exporter writing to the given file.
+     *
+     * @param city     the city to publish
+     * @param file     the live state file, replaced if it exists
+     * @param interval publication interval in milliseconds
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public LiveStateExporter(City city, Path file, long interval) throws IOException {
+        this.city = city;
+        this.interval = interval;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        map(size(city.getBanks().size(), city.getWorkers().size(), city.getSpenders().size()));
+        buffer.putInt(MAGIC_OFFSET, MAGIC);
+        buffer.putInt(VERSION_OFFSET, VERSION);
+    }
+
+    /**
+     * Starts periodic publication on the given scheduler.
+     *
+     * @param scheduler the scheduler driving publication
+     */
+    public void start(TimingWheel scheduler) {
+        this.scheduler = scheduler;
+        scheduler.submit(this, 0);
+    }
+
+    /**
+     * Stops periodic publication. {@link #publish()} can still be called for a final view.
+     */
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * Publishes the city state and schedules the next publication, also after a failed one.
+     */
+    @Override
+    public void run() {
+        if (!running) return;
+        try {
+            publish();
+        } catch (IOException e) {
+            Logger.log("Live state publication failed: " + e);
+        }
+        scheduler.submit(this, interval);
+    }
+
+    /**
+     * Copies the current city state into the file as one seqlock-protected write.
+     * The file grows when the population no longer fits.
+     *
+     * @throws IOException if the file has to grow and cannot be remapped
+     */
+    public synchronized void publish() throws IOException {
+        List<Bank> banks = city.getBanks();
+        List<Worker> workers = city.getWorkers();
+        List<Spender> spenders = city.getSpenders();
+        int bankCount = banks.size();
+        int workerCount = workers.size();
+        int spenderCount = spenders.size();
+        long required = size(bankCount, workerCount, spenderCount);
+        if (required > buffer.capacity()) {
+            map(Math.max(required, buffer.capacity() * 2L));
+        }
+
+        SEQUENCE.setOpaque(buffer, SEQUENCE_OFFSET, ++sequence);
+        VarHandle.storeStoreFence();
+
+        long loans = 0;
+        long deposits = 0;
+        int offset = HEADER_SIZE;
+        for (int i = 0; i < bankCount; i++, offset += BANK_SIZE) {
+            Bank bank = banks.get(i);
+            long bankLoans = bank.getLoanCount();
+            long bankDeposits = bank.getDepositCount();
+            loans += bankLoans;
+            deposits += bankDeposits;
+            buffer.putLong(offset, bankLoans);
+            buffer.putLong(offset + 8, bankDeposits);
+            buffer.putInt(offset + 16, bank.getId());
+            buffer.putInt(offset + 20, bank.getMoney().get());
+            buffer.putInt(offset + 24, bank.isBusy() ? 1 : 0);
+        }
+        for (int i = 0; i < workerCount; i++, offset += CLIENT_SIZE) {
+            Worker worker = workers.get(i);
+            putClient(offset, worker.getChainId(), worker.getId(), worker.peekMoney(), worker.isBusy());
+        }
+        for (int i = 0; i < spenderCount; i++, offset += CLIENT_SIZE) {
+            Spender spender = spenders.get(i);
+            putClient(offset, spender.getChainId(), spender.getId(), spender.peekMoney(), spender.hasPendingJob());
+        }
+        buffer.putLong(TIME_OFFSET, System.currentTimeMillis());
+        buffer.putLong(PUBLISH_COUNT_OFFSET, ++publishCount);
+        buffer.putInt(BANK_COUNT_OFFSET, bankCount);
+        buffer.putInt(WORKER_COUNT_OFFSET, workerCount);
+        buffer.putInt(SPENDER_COUNT_OFFSET, spenderCount);
+        buffer.putLong(LOANS_OFFSET, loans);
+        buffer.putLong(DEPOSITS_OFFSET, deposits);
+
+        SEQUENCE.setRelease(buffer, SEQUENCE_OFFSET, ++sequence);
+    }
+
+    /**
+     * Stops publication and closes the file. Readers that mapped the file keep their last view.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        running = false;
+        buffer.force();
+        channel.close();
+    }
+
+    private void putClient(int offset, long chainId, int id, int money, boolean busy) {
+        buffer.putLong(offset, chainId);
+        buffer.putInt(offset + 8, id);
+        buffer.putInt(offset + 12, money);
+        buffer.putInt(offset + 16, busy ? 1 : 0);
+    }
+
+    private void map(long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Live state does not fit into one mapping: " + size + " bytes");
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.order(ORDER);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.straxov.live;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Binary layout of the live state file shared by {@link LiveStateExporter} and {@link LiveStateReader}.
+ *
+ * <p>All values are little-endian. The header holds the magic {@code "CLS1"}, the layout version and the
+ * sequence word, followed by the publication time, publication count, entity counts and city-wide loan and
+ * deposit counters. Bank records follow the header, then worker records, then spender records.</p>
+ *
+ * <p>The sequence word works as a seqlock: the writer makes it odd before changing anything and even again
+ * afterwards. A reader that sees the same even sequence before and after copying a view knows the view is
+ * consistent.</p>
+ */
+final class LiveStateLayout {
+    static final int MAGIC = 0x434C5331;
+    static final int VERSION = 1;
+
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int SEQUENCE_OFFSET = 8;
+    static final int TIME_OFFSET = 16;
+    static final int PUBLISH_COUNT_OFFSET = 24;
+    static final int BANK_COUNT_OFFSET = 32;
+    static final int WORKER_COUNT_OFFSET = 36;
+    static final int SPENDER_COUNT_OFFSET = 40;
+    static final int LOANS_OFFSET = 48;
+    static final int DEPOSITS_OFFSET = 56;
+    static final int HEADER_SIZE = 64;
+
+    /**
+     * Bank record: long loan count, long deposit count, int id, int money, int busy flag, int padding.
+     */
+    static final int BANK_SIZE = 32;
+
+    /**
+     * Client record: long chain id, int id, int money, int busy flag, int padding.
+     */
+    static final int CLIENT_SIZE = 24;
+
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    static final VarHandle SEQUENCE = MethodHandles.byteBufferViewVarHandle(long[].class, ORDER);
+
+    private LiveStateLayout() {
+    }
+
+    /**
+     * Computes the file size needed for the given population.
+     *
+     * @param banks    number of banks
+     * @param workers  number of workers
+     * @param spenders number of spenders
+     * @return size in bytes
+     */
+    static long size(int banks, int workers, int spenders) {
+        return HEADER_SIZE + (long) banks * BANK_SIZE + (long) (workers + spenders) * CLIENT_SIZE;
+    }
+
+    /**
+     * Computes the offset of the first worker record.
+     *
+     * @param banks number of banks
+     * @return offset in bytes
+     */
+    static int workersOffset(int banks) {
+        return HEADER_SIZE + banks * BANK_SIZE;
+    }
+
+    /**
+     * Computes the offset of the first spender record.
+     *
+     * @param banks   number of banks
+     * @param workers number of workers
+     * @return offset in bytes
+     */
+    static int spendersOffset(int banks, int workers) {
+        return workersOffset(banks) + workers * CLIENT_SIZE;
+    }
+}
\ No newline at end of file
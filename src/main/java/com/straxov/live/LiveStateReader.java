@@ -0,0 +1,168 @@
+package com.straxov.live;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.straxov.live.LiveStateLayout.*;
+
+/**
+ * Reads consistent views of the live state file written by {@link LiveStateExporter}.
+ * Works from any process on the same machine: the file is mapped read-only and views are copied out
+ * under the seqlock, retrying while the writer is in the middle of a publication.
+ *
+ * <p>Usage: {@code java com.straxov.live.LiveStateReader <file> [interval ms]} prints a summary of the city
+ * at the given interval until interrupted.</p>
+ */
+public class LiveStateReader implements AutoCloseable {
+    private static final long STUCK_WRITER_NANOS = 1_000_000_000L;
+
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    /**
+     * Opens a live state file.
+     *
+     * @param file the live state file
+     * @throws IOException if the file cannot be mapped or is not a live state file
+     */
+    public LiveStateReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        remap();
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(MAGIC_OFFSET) != MAGIC) {
+            channel.close();
+            throw new IOException("Not a live state file: " + file);
+        }
+        if (buffer.getInt(VERSION_OFFSET) != VERSION) {
+            channel.close();
+            throw new IOException("Unsupported live state version: " + buffer.getInt(VERSION_OFFSET));
+        }
+    }
+
+    /**
+     * Reads a consistent view of the latest publication.
+     *
+     * @return the snapshot
+     * @throws IOException           if the file grew and cannot be remapped
+     * @throws IllegalStateException if the writer stays in the middle of a publication for too long
+     */
+    public LiveSnapshot read() throws IOException {
+        long deadline = System.nanoTime() + STUCK_WRITER_NANOS;
+        while (true) {
+            LiveSnapshot snapshot = tryRead();
+            if (snapshot != null) return snapshot;
+            if (System.nanoTime() - deadline > 0) {
+                throw new IllegalStateException("Live state writer is stuck in a publication");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Stops reading the file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Makes one attempt to copy a view.
+     *
+     * @return the snapshot, or null if a publication was in progress or completed meanwhile
+     * @throws IOException if the file grew and cannot be remapped
+     */
+    private LiveSnapshot tryRead() throws IOException {
+        long before = (long) SEQUENCE.getAcquire(buffer, SEQUENCE_OFFSET);
+        if ((before & 1) != 0) return null;
+        int bankCount = buffer.getInt(BANK_COUNT_OFFSET);
+        int workerCount = buffer.getInt(WORKER_COUNT_OFFSET);
+        int spenderCount = buffer.getInt(SPENDER_COUNT_OFFSET);
+        if (bankCount < 0 || workerCount < 0 || spenderCount < 0) return null;
+        if (size(bankCount, workerCount, spenderCount) > buffer.capacity()) {
+            remap();
+            return null;
+        }
+        long time = buffer.getLong(TIME_OFFSET);
+        long publishCount = buffer.getLong(PUBLISH_COUNT_OFFSET);
+        long loans = buffer.getLong(LOANS_OFFSET);
+        long deposits = buffer.getLong(DEPOSITS_OFFSET);
+
+        int[] bankIds = new int[bankCount];
+        int[] bankMoney = new int[bankCount];
+        boolean[] bankBusy = new boolean[bankCount];
+        long[] bankLoans = new long[bankCount];
+        long[] bankDeposits = new long[bankCount];
+        int offset = HEADER_SIZE;
+        for (int i = 0; i < bankCount; i++, offset += BANK_SIZE) {
+            bankLoans[i] = buffer.getLong(offset);
+            bankDeposits[i] = buffer.getLong(offset + 8);
+            bankIds[i] = buffer.getInt(offset + 16);
+            bankMoney[i] = buffer.getInt(offset + 20);
+            bankBusy[i] = buffer.getInt(offset + 24) != 0;
+        }
+        LiveSnapshot.Clients workers = readClients(workersOffset(bankCount), workerCount);
+        LiveSnapshot.Clients spenders = readClients(spendersOffset(bankCount, workerCount), spenderCount);
+
+        VarHandle.loadLoadFence();
+        long after = (long) SEQUENCE.getAcquire(buffer, SEQUENCE_OFFSET);
+        if (after != before) return null;
+        return new LiveSnapshot(before, time, publishCount, loans, deposits,
+                bankIds, bankMoney, bankBusy, bankLoans, bankDeposits, workers, spenders);
+    }
+
+    private LiveSnapshot.Clients readClients(int offset, int count) {
+        int[] ids = new int[count];
+        int[] money = new int[count];
+        boolean[] busy = new boolean[count];
+        long[] chainIds = new long[count];
+        for (int i = 0; i < count; i++, offset += CLIENT_SIZE) {
+            chainIds[i] = buffer.getLong(offset);
+            ids[i] = buffer.getInt(offset + 8);
+            money[i] = buffer.getInt(offset + 12);
+            busy[i] = buffer.getInt(offset + 16) != 0;
+        }
+        return new LiveSnapshot.Clients(ids, money, busy, chainIds);
+    }
+
+    private void remap() throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        buffer.order(ORDER);
+    }
+
+    /**
+     * Prints a summary of a running city at a fixed interval.
+     *
+     * @param args the live state file and an optional interval in milliseconds
+     * @throws Exception if the file cannot be read
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("Usage: LiveStateReader <live state file> [interval ms]");
+            return;
+        }
+        long interval = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+        try (LiveStateReader reader = new LiveStateReader(Path.of(args[0]))) {
+            long lastSequence = -1;
+            while (true) {
+                LiveSnapshot snapshot = reader.read();
+                if (snapshot.getSequence() != lastSequence) {
+                    lastSequence = snapshot.getSequence();
+                    System.out.println("Publication " + snapshot.getPublishCount()
+                            + ": total money " + snapshot.getTotalMoney() + "$"
+                            + ", banks " + snapshot.getBankIds().length
+                            + ", busy workers " + snapshot.getWorkers().countBusy() + "/" + snapshot.getWorkers().getIds().length
+                            + ", spenders waiting " + snapshot.getSpenders().countBusy() + "/" + snapshot.getSpenders().getIds().length
+                            + ", loans " + snapshot.getTotalLoans()
+                            + ", deposits " + snapshot.getTotalDeposits());
+                }
+                Thread.sleep(interval);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -2,28 +2,32 @@ package com.straxov.loader;
 
 import java.io.*;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
- * Singleton configuration loader that reads simulation parameters from properties files.
+ * Configuration loader that reads simulation parameters from properties files.
+ * Every city owns its own loader, so several scenarios with different parameters can run in one JVM.
  * Provides thread-safe access to all configuration parameters.
  */
 public class ConfigLoader {
-    private static final Properties properties = new Properties();
-    private static final ConfigLoader INSTANCE = new ConfigLoader();
+    private final Properties properties;
 
     /**
-     * Private constructor to prevent instantiation.
+     * Creates an empty configuration.
      */
-    private ConfigLoader() {
+    public ConfigLoader() {
+        this(new Properties());
     }
 
     /**
-     * Returns the singleton instance of ConfigLoader.
+     * Creates a configuration backed by a copy of the given properties.
      *
-     * @return The single instance of ConfigLoader
+     * @param properties the configuration parameters
      */
-    public static ConfigLoader getInstance() {
-        return INSTANCE;
+    public ConfigLoader(Properties properties) {
+        this.properties = new Properties();
+        this.properties.putAll(properties);
     }
 
     /**
@@ -40,13 +44,50 @@ public class ConfigLoader {
         }
     }
 
+    /**
+     * Returns a copy of this configuration with a single parameter replaced.
+     *
+     * @param key   the parameter name
+     * @param value the new parameter value
+     * @return a new ConfigLoader with the override applied
+     */
+    public ConfigLoader withOverride(String key, String value) {
+        ConfigLoader copy = new ConfigLoader(properties);
+        copy.properties.setProperty(key, value);
+        return copy;
+    }
+
+    /**
+     * Gets a raw parameter value.
+     *
+     * @param key the parameter name
+     * @return the parameter value, or null if not set
+     */
+    public String getProperty(String key) {
+        return properties.getProperty(key);
+    }
+
+    /**
+     * Gets the names of all parameters starting with the given prefix.
+     *
+     * @param prefix the name prefix
+     * @return matching parameter names
+     */
+    public Set<String> getPropertyNames(String prefix) {
+        Set<String> names = new TreeSet<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(prefix)) names.add(name);
+        }
+        return names;
+    }
+
 
     /**
      * Gets the duration of a simulation day in milliseconds.
      *
      * @return Day duration in ms
      */
-    public static long getDayDuration() {
+    public long getDayDuration() {
         return Long.parseLong(properties.getProperty("day.duration"));
     }
 
@@ -55,7 +96,7 @@ public class ConfigLoader {
      *
      * @return Work duration in ms
      */
-    public static long getWorkerWorkDuration() {
+    public long getWorkerWorkDuration() {
         return Long.parseLong(properties.getProperty("worker.work.duration"));
     }
 
@@ -64,7 +105,7 @@ public class ConfigLoader {
      *
      * @return Lunch duration in ms
      */
-    public static long getLunchDuration() {
+    public long getLunchDuration() {
         return Long.parseLong(properties.getProperty("lunch.duration"));
     }
 
@@ -73,7 +114,7 @@ public class ConfigLoader {
      *
      * @return Number of banks
      */
-    public static int getBanksCount() {
+    public int getBanksCount() {
         return Integer.parseInt(properties.getProperty("banks.count"));
     }
 
@@ -82,7 +123,7 @@ public class ConfigLoader {
      *
      * @return Number of workers
      */
-    public static int getWorkersCount() {
+    public int getWorkersCount() {
         return Integer.parseInt(properties.getProperty("workers.count"));
     }
 
@@ -91,7 +132,7 @@ public class ConfigLoader {
      *
      * @return Number of spenders
      */
-    public static int getSpendersCount() {
+    public int getSpendersCount() {
         return Integer.parseInt(properties.getProperty("spenders.count"));
     }
 
@@ -100,7 +141,7 @@ public class ConfigLoader {
      *
      * @return Initial bank money
      */
-    public static int getBankInitialMoney() {
+    public int getBankInitialMoney() {
         return Integer.parseInt(properties.getProperty("bank.initial.money"));
     }
 
@@ -109,7 +150,7 @@ public class ConfigLoader {
      *
      * @return Initial client money
      */
-    public static int getClientInitialMoney() {
+    public int getClientInitialMoney() {
         return Integer.parseInt(properties.getProperty("client.initial.money"));
     }
 
@@ -118,7 +159,7 @@ public class ConfigLoader {
      *
      * @return Worker salary amount
      */
-    public static int getWorkerSalary() {
+    public int getWorkerSalary() {
         return Integer.parseInt(properties.getProperty("worker.salary"));
     }
 
@@ -127,7 +168,331 @@ public class ConfigLoader {
      *
      * @return Worker money limit
      */
-    public static int getWorkerMoneyLimit() {
+    public int getWorkerMoneyLimit() {
         return Integer.parseInt(properties.getProperty("worker.money.limit"));
     }
+
+    /**
+     * Gets the duration of one scheduler tick in milliseconds.
+     *
+     * @return Tick duration in ms
+     */
+    public long getSchedulerTickDuration() {
+        return Long.parseLong(properties.getProperty("scheduler.tick.duration"));
+    }
+
+    /**
+     * Gets the number of buckets in the scheduler timing wheel.
+     *
+     * @return Wheel size
+     */
+    public int getSchedulerWheelSize() {
+        return Integer.parseInt(properties.getProperty("scheduler.wheel.size"));
+    }
+
+    /**
+     * Gets the number of threads executing scheduled client actions.
+     *
+     * @return Number of scheduler threads
+     */
+    public int getSchedulerThreads() {
+        return Integer.parseInt(properties.getProperty("scheduler.threads"));
+    }
+
+    /**
+     * Gets the interval between interbank settlement cycles in milliseconds.
+     *
+     * @return Clearing interval in ms
+     */
+    public long getClearingInterval() {
+        return Long.parseLong(properties.getProperty("clearing.interval"));
+    }
+
+    /**
+     * Gets the interval between metrics samples in milliseconds.
+     *
+     * @return Sample interval in ms
+     */
+    public long getMetricsSampleInterval() {
+        return Long.parseLong(properties.getProperty("metrics.sample.interval"));
+    }
+
+    /**
+     * Gets the number of downsampling tiers kept for each metric.
+     *
+     * @return Number of tiers
+     */
+    public int getMetricsTiers() {
+        return Integer.parseInt(properties.getProperty("metrics.tiers"));
+    }
+
+    /**
+     * Gets the number of samples kept per metric tier.
+     *
+     * @return Tier capacity
+     */
+    public int getMetricsCapacity() {
+        return Integer.parseInt(properties.getProperty("metrics.capacity"));
+    }
+
+    /**
+     * Gets the number of samples averaged into one sample of the next tier.
+     *
+     * @return Downsampling factor
+     */
+    public int getMetricsDownsampleFactor() {
+        return Integer.parseInt(properties.getProperty("metrics.downsample.factor"));
+    }
+
+    /**
+     * Gets the file metrics are exported to at the end of the day; empty disables the export.
+     *
+     * @return Export file path
+     */
+    public String getMetricsExportFile() {
+        return properties.getProperty("metrics.export.file", "").trim();
+    }
+
+    /**
+     * Gets the number of buckets in each anomaly detection window.
+     *
+     * @return Number of buckets
+     */
+    public int getAnomalyWindowBuckets() {
+        return Integer.parseInt(properties.getProperty("anomaly.window.buckets"));
+    }
+
+    /**
+     * Gets the duration of one anomaly detection bucket in milliseconds.
+     *
+     * @return Bucket duration in ms
+     */
+    public long getAnomalyBucketDuration() {
+        return Long.parseLong(properties.getProperty("anomaly.bucket.duration"));
+    }
+
+    /**
+     * Gets the z-score above which a bank's loan volume is reported as anomalous.
+     *
+     * @return Z-score threshold
+     */
+    public double getAnomalyZScoreThreshold() {
+        return Double.parseDouble(properties.getProperty("anomaly.zscore.threshold"));
+    }
+
+    /**
+     * Gets the amount a single client may borrow within one detection window before an alert.
+     *
+     * @return Client loan limit
+     */
+    public long getAnomalyClientLoanLimit() {
+        return Long.parseLong(properties.getProperty("anomaly.client.loan.limit"));
+    }
+
+    /**
+     * Gets the bank reserves below which an alert is raised after a loan.
+     *
+     * @return Reserve floor
+     */
+    public int getAnomalyBankReserveFloor() {
+        return Integer.parseInt(properties.getProperty("anomaly.bank.reserve.floor"));
+    }
+
+    /**
+     * Gets the interval between interest and repayment batches in milliseconds.
+     *
+     * @return Batch interval in ms
+     */
+    public long getLedgerBatchInterval() {
+        return Long.parseLong(properties.getProperty("ledger.batch.interval"));
+    }
+
+    /**
+     * Gets the interest charged per batch in basis points of the loan principal.
+     *
+     * @return Interest rate in basis points
+     */
+    public int getLedgerInterestRateBps() {
+        return Integer.parseInt(properties.getProperty("ledger.interest.rate.bps"));
+    }
+
+    /**
+     * Gets the maximum amount collected from each borrower per batch.
+     *
+     * @return Repayment installment
+     */
+    public int getLedgerRepaymentInstallment() {
+        return Integer.parseInt(properties.getProperty("ledger.repayment.installment"));
+    }
+
+    /**
+     * Gets the number of threads sweeping bank accounts in parallel; 0 means one per available processor.
+     *
+     * @return Sweep parallelism
+     */
+    public int getLedgerSweepParallelism() {
+        return Integer.parseInt(properties.getProperty("ledger.sweep.parallelism"));
+    }
+
+    /**
+     * Gets the memory-mapped file the live city state is published to; empty disables the export.
+     *
+     * @return Live state file path
+     */
+    public String getLiveExportFile() {
+        return properties.getProperty("live.export.file", "").trim();
+    }
+
+    /**
+     * Gets the interval between live state publications in milliseconds.
+     *
+     * @return Publication interval in ms
+     */
+    public long getLiveExportInterval() {
+        return Long.parseLong(properties.getProperty("live.export.interval"));
+    }
+
+    /**
+     * Checks if banks and workers are scaled at runtime.
+     *
+     * @return True if autoscaling is enabled
+     */
+    public boolean isAutoscaleEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("autoscale.enabled"));
+    }
+
+    /**
+     * Gets the interval between autoscaler evaluations in milliseconds.
+     *
+     * @return Evaluation interval in ms
+     */
+    public long getAutoscaleInterval() {
+        return Long.parseLong(properties.getProperty("autoscale.interval"));
+    }
+
+    /**
+     * Gets the bank queue wait the autoscaler keeps clients under, in milliseconds.
+     *
+     * @return Bank queue wait target in ms
+     */
+    public double getAutoscaleBankWaitTarget() {
+        return Double.parseDouble(properties.getProperty("autoscale.bank.wait.target"));
+    }
+
+    /**
+     * Gets the hire wait the autoscaler keeps spenders under, in milliseconds.
+     *
+     * @return Hire wait target in ms
+     */
+    public double getAutoscaleHireWaitTarget() {
+        return Double.parseDouble(properties.getProperty("autoscale.hire.wait.target"));
+    }
+
+    /**
+     * Gets the fraction of a target below which capacity is retired.
+     *
+     * @return Low watermark between 0 and 1
+     */
+    public double getAutoscaleLowWatermark() {
+        return Double.parseDouble(properties.getProperty("autoscale.low.watermark"));
+    }
+
+    /**
+     * Gets the number of consecutive evaluations a latency must stay out of band before scaling.
+     *
+     * @return Patience in evaluations
+     */
+    public int getAutoscalePatience() {
+        return Integer.parseInt(properties.getProperty("autoscale.patience"));
+    }
+
+    /**
+     * Gets the pause after a scaling action before the next one, in milliseconds.
+     *
+     * @return Cooldown in ms
+     */
+    public long getAutoscaleCooldown() {
+        return Long.parseLong(properties.getProperty("autoscale.cooldown"));
+    }
+
+    /**
+     * Gets the minimum number of active banks.
+     *
+     * @return Minimum banks
+     */
+    public int getAutoscaleMinBanks() {
+        return Integer.parseInt(properties.getProperty("autoscale.banks.min"));
+    }
+
+    /**
+     * Gets the maximum number of active banks.
+     *
+     * @return Maximum banks
+     */
+    public int getAutoscaleMaxBanks() {
+        return Integer.parseInt(properties.getProperty("autoscale.banks.max"));
+    }
+
+    /**
+     * Gets the minimum number of active workers.
+     *
+     * @return Minimum workers
+     */
+    public int getAutoscaleMinWorkers() {
+        return Integer.parseInt(properties.getProperty("autoscale.workers.min"));
+    }
+
+    /**
+     * Gets the maximum number of active workers.
+     *
+     * @return Maximum workers
+     */
+    public int getAutoscaleMaxWorkers() {
+        return Integer.parseInt(properties.getProperty("autoscale.workers.max"));
+    }
+
+    /**
+     * Gets the number of jobs a worker can queue on the job market.
+     *
+     * @return Worker queue capacity
+     */
+    public int getMarketQueueCapacity() {
+        return Integer.parseInt(properties.getProperty("market.worker.queue.capacity"));
+    }
+
+    /**
+     * Checks if workers work in staggered shifts with lunch breaks.
+     *
+     * @return true if the shift scheduler is enabled
+     */
+    public boolean isShiftEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("shift.enabled"));
+    }
+
+    /**
+     * Gets the window over which worker shift starts are spread.
+     *
+     * @return Shift stagger in ms
+     */
+    public long getShiftStagger() {
+        return Long.parseLong(properties.getProperty("shift.stagger"));
+    }
+
+    /**
+     * Gets the time a worker works before going to lunch.
+     *
+     * @return Work time between lunches in ms
+     */
+    public long getShiftLunchAfter() {
+        return Long.parseLong(properties.getProperty("shift.lunch.after"));
+    }
+
+    /**
+     * Gets the maximum random delay of a worker's deposit.
+     *
+     * @return Deposit jitter in ms
+     */
+    public long getShiftDepositJitter() {
+        return Long.parseLong(properties.getProperty("shift.deposit.jitter"));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,179 @@
+package com.straxov.logger;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Reusable text buffer written straight to standard output as bytes.
+ * Text, chars and bytes are kept in buffers that only grow and are reused for every line. The byte buffer
+ * always holds the worst-case encoding of the char buffer and grows with it; lines of up to 256 characters
+ * never make either buffer grow.
+ */
+public final class LogLine {
+    private static final String PREFIX = "Logging: ";
+    private static final Charset CHARSET = stdoutCharset();
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final StringBuilder text = new StringBuilder(INITIAL_CAPACITY);
+    private final CharsetEncoder encoder = CHARSET.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private CharBuffer chars = CharBuffer.allocate(INITIAL_CAPACITY);
+    private ByteBuffer bytes = ByteBuffer.allocate(maxBytes(INITIAL_CAPACITY));
+
+    /**
+     * Creates an empty line. Hot paths take the per-thread line from {@link Logger#line()};
+     * components printing longer reports can own a line.
+     */
+    public LogLine() {
+    }
+
+    /**
+     * Clears the line.
+     *
+     * @return this line
+     */
+    public LogLine clear() {
+        text.setLength(0);
+        return this;
+    }
+
+    /**
+     * Appends text.
+     *
+     * @param value the text
+     * @return this line
+     */
+    public LogLine append(String value) {
+        text.append(value);
+        return this;
+    }
+
+    /**
+     * Appends text.
+     *
+     * @param value the text
+     * @return this line
+     */
+    public LogLine append(CharSequence value) {
+        text.append(value);
+        return this;
+    }
+
+    /**
+     * Appends a character.
+     *
+     * @param value the character
+     * @return this line
+     */
+    public LogLine append(char value) {
+        text.append(value);
+        return this;
+    }
+
+    /**
+     * Appends a number in decimal.
+     *
+     * @param value the number
+     * @return this line
+     */
+    public LogLine append(int value) {
+        text.append(value);
+        return this;
+    }
+
+    /**
+     * Appends a number in decimal.
+     *
+     * @param value the number
+     * @return this line
+     */
+    public LogLine append(long value) {
+        text.append(value);
+        return this;
+    }
+
+    /**
+     * Inserts text at the start of the line.
+     *
+     * @param value the text
+     * @return this line
+     */
+    public LogLine prepend(String value) {
+        text.insert(0, value);
+        return this;
+    }
+
+    /**
+     * Gets the number of characters in the line.
+     *
+     * @return the length
+     */
+    public int length() {
+        return text.length();
+    }
+
+    /**
+     * Logs the line with the "Logging:" prefix if logging is enabled.
+     */
+    public void log() {
+        if (!Logger.isEnabled()) return;
+        write(PREFIX, true);
+    }
+
+    /**
+     * Prints the line as is, regardless of the logging switch.
+     */
+    public void print() {
+        write("", false);
+    }
+
+    /**
+     * Returns the line's text.
+     *
+     * @return the text
+     */
+    @Override
+    public String toString() {
+        return text.toString();
+    }
+
+    private void write(String prefix, boolean newLine) {
+        int length = prefix.length() + text.length() + (newLine ? 1 : 0);
+        if (chars.capacity() < length) {
+            chars = CharBuffer.allocate(Math.max(length, chars.capacity() * 2));
+            bytes = ByteBuffer.allocate(maxBytes(chars.capacity()));
+        }
+        chars.clear();
+        chars.put(prefix);
+        text.getChars(0, text.length(), chars.array(), chars.position());
+        chars.position(chars.position() + text.length());
+        if (newLine) chars.put('\n');
+        chars.flip();
+
+        bytes.clear();
+        encoder.reset();
+        encoder.encode(chars, bytes, true);
+        encoder.flush(bytes);
+        PrintStream out = System.out;
+        out.write(bytes.array(), 0, bytes.position());
+        out.flush();
+    }
+
+    private int maxBytes(int chars) {
+        return (int) Math.ceil(chars * (double) encoder.maxBytesPerChar());
+    }
+
+    private static Charset stdoutCharset() {
+        String name = System.getProperty("stdout.encoding", System.getProperty("sun.stdout.encoding"));
+        try {
+            return name != null ? Charset.forName(name) : Charset.defaultCharset();
+        } catch (IllegalArgumentException e) {
+            return Charset.defaultCharset();
+        }
+    }
+}
\ No newline at end of file
@@ -2,14 +2,47 @@ package com.straxov.logger;
 
 /**
  * Utility class for logging messages to the console.
+ * Messages can be built in a reusable per-thread {@link LogLine} instead of concatenated into a string.
  */
 public class Logger {
+    private static volatile boolean enabled = true;
+    private static final ThreadLocal<LogLine> LINES = ThreadLocal.withInitial(LogLine::new);
+
+    /**
+     * Enables or disables logging globally.
+     *
+     * @param enabled true to print log messages, false to drop them
+     */
+    public static void setEnabled(boolean enabled) {
+        Logger.enabled = enabled;
+    }
+
+    /**
+     * Checks if logging is enabled.
+     *
+     * @return true if log messages are printed
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts a new message in the calling thread's reusable line; finish it with {@link LogLine#log()}.
+     * The line must be logged before the thread starts another one.
+     *
+     * @return the cleared line of the calling thread
+     */
+    public static LogLine line() {
+        return LINES.get().clear();
+    }
+
     /**
      * Logs the specified message to the console with a "Logging:" prefix.
      *
      * @param message the message to be logged
      */
     public static void log(String message) {
-        System.out.println("Logging: " + message);
+        if (!enabled) return;
+        line().append(message).log();
     }
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.straxov.market;
+
+import com.straxov.entitiy.Spender;
+
+/**
+ * A job posted by a spender on the {@link JobMarket}.
+ * Every spender owns one job object and reposts it after a worker has taken it.
+ * The worker pays itself the salary from the spender's balance when it starts the job.
+ */
+public final class Job {
+    private final Spender spender;
+    private final int salary;
+    private long chainId;
+    private long postedAt;
+
+    /**
+     * Creates a job of the given spender.
+     *
+     * @param spender the spender posting the job
+     * @param salary  the salary paid for the job
+     */
+    public Job(Spender spender, int salary) {
+        this.spender = spender;
+        this.salary = salary;
+    }
+
+    /**
+     * Prepares the job for posting.
+     *
+     * @param chainId  the chain id of the hire
+     * @param postedAt when the job is posted, from System.nanoTime()
+     */
+    public void prepare(long chainId, long postedAt) {
+        this.chainId = chainId;
+        this.postedAt = postedAt;
+    }
+
+    /**
+     * Gets the spender who posted the job.
+     *
+     * @return the spender
+     */
+    public Spender getSpender() {
+        return spender;
+    }
+
+    /**
+     * Gets the salary paid for the job.
+     *
+     * @return the salary
+     */
+    public int getSalary() {
+        return salary;
+    }
+
+    /**
+     * Gets the chain id of the hire.
+     *
+     * @return the chain id
+     */
+    public long getChainId() {
+        return chainId;
+    }
+
+    /**
+     * Gets when the job was posted.
+     *
+     * @return the posting time from System.nanoTime()
+     */
+    public long getPostedAt() {
+        return postedAt;
+    }
+}
\ No newline at end of file
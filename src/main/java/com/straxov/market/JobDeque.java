@@ -0,0 +1,69 @@
+package com.straxov.market;
+
+/**
+ * Bounded queue of jobs on a ring buffer.
+ * Jobs are appended at the tail and taken from the head in posting order, by the owning worker and by thieves alike.
+ * Not thread-safe: the owner guards it with its own lock.
+ */
+public final class JobDeque {
+    private final Job[] jobs;
+    private int head;
+    private int size;
+
+    /**
+     * Creates an empty deque.
+     *
+     * @param capacity maximum number of queued jobs
+     */
+    public JobDeque(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.jobs = new Job[capacity];
+    }
+
+    /**
+     * Appends a job at the tail.
+     *
+     * @param job the job
+     * @return false if the deque is full
+     */
+    public boolean offerLast(Job job) {
+        if (size == jobs.length) return false;
+        jobs[(head + size) % jobs.length] = job;
+        size++;
+        return true;
+    }
+
+    /**
+     * Takes the oldest job from the head.
+     *
+     * @return the job, or null if empty
+     */
+    public Job pollFirst() {
+        if (size == 0) return null;
+        Job job = jobs[head];
+        jobs[head] = null;
+        head = (head + 1) % jobs.length;
+        size--;
+        return job;
+    }
+
+    /**
+     * Gets the number of queued jobs.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the maximum number of queued jobs.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return jobs.length;
+    }
+}
\ No newline at end of file
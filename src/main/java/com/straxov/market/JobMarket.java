@@ -0,0 +1,163 @@
+package com.straxov.market;
+
+import com.straxov.city.City;
+import com.straxov.entitiy.Worker;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Job marketplace of a city.
+ * Spenders post jobs instead of polling for an idle worker. A posted job goes to an idle worker if there is one,
+ * otherwise into the shortest bounded deque of a busy worker, and only when every deque is full into a shared
+ * backlog. Workers run their own deque first, then the backlog, and then steal the oldest job of the most loaded
+ * worker, so queued work spreads to whoever becomes free first.
+ */
+public class JobMarket {
+    private final City city;
+    private final int queueCapacity;
+    private final ArrayDeque<Job> backlog;
+    private volatile int backlogSize;
+    private final AtomicInteger nextWorker = new AtomicInteger();
+    private final AtomicLong posted = new AtomicLong();
+    private final AtomicLong backlogged = new AtomicLong();
+    private final AtomicLong stolen = new AtomicLong();
+    private volatile long startNanos = System.nanoTime();
+
+    /**
+     * Creates a marketplace for the given city.
+     *
+     * @param city          the city whose workers take the jobs
+     * @param queueCapacity maximum number of jobs queued at one worker
+     * @param spenders      number of spenders; each has at most one job posted, so the backlog never grows past it
+     */
+    public JobMarket(City city, int queueCapacity, int spenders) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Worker queue capacity must be positive");
+        }
+        this.city = city;
+        this.queueCapacity = queueCapacity;
+        this.backlog = new ArrayDeque<>(Math.max(1, spenders));
+    }
+
+    /**
+     * Restarts the utilisation clock; called when the city starts.
+     */
+    public void start() {
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Gets the number of jobs a worker can queue.
+     *
+     * @return the deque capacity
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Posts a job. The spender is called back through {@link com.straxov.entitiy.Spender#jobTaken} once a worker
+     * starts it.
+     *
+     * @param job the job
+     */
+    public void post(Job job) {
+        posted.incrementAndGet();
+        List<Worker> workers = city.getWorkers();
+        int n = workers.size();
+        int start = n == 0 ? 0 : Math.floorMod(nextWorker.getAndIncrement(), n);
+        for (int k = 0; k < n; k++) {
+            Worker worker = workers.get((start + k) % n);
+            if (worker.acceptsJobs() && !worker.isBusy() && worker.offer(job)) return;
+        }
+        for (int attempt = 0; attempt < n; attempt++) {
+            Worker shortest = null;
+            for (int k = 0; k < n; k++) {
+                Worker worker = workers.get((start + k) % n);
+                int queued = worker.getQueuedJobs();
+                if (worker.acceptsJobs() && queued < queueCapacity
+                        && (shortest == null || queued < shortest.getQueuedJobs())) {
+                    shortest = worker;
+                }
+            }
+            if (shortest == null) break;
+            if (shortest.offer(job)) return;
+        }
+        synchronized (backlog) {
+            backlog.addLast(job);
+            backlogSize = backlog.size();
+        }
+        backlogged.incrementAndGet();
+        for (int k = 0; k < n; k++) {
+            if (workers.get((start + k) % n).wake()) return;
+        }
+    }
+
+    /**
+     * Finds the next job for a worker whose own deque is empty: the oldest backlog job,
+     * or else the oldest job queued at the most loaded other worker. The other workers are scanned once; if the
+     * chosen one runs out of jobs before the steal, there is nothing to take, as its owner is working through them.
+     *
+     * @param thief the worker looking for a job
+     * @return a job, or null if there is nothing to take
+     */
+    public Job take(Worker thief) {
+        if (backlogSize > 0) {
+            synchronized (backlog) {
+                Job job = backlog.pollFirst();
+                backlogSize = backlog.size();
+                if (job != null) return job;
+            }
+        }
+        List<Worker> workers = city.getWorkers();
+        Worker victim = null;
+        for (int i = 0, n = workers.size(); i < n; i++) {
+            Worker worker = workers.get(i);
+            if (worker != thief && worker.getQueuedJobs() > 0
+                    && (victim == null || worker.getQueuedJobs() > victim.getQueuedJobs())) {
+                victim = worker;
+            }
+        }
+        if (victim == null) return null;
+        Job job = victim.steal();
+        if (job != null) stolen.incrementAndGet();
+        return job;
+    }
+
+    /**
+     * Checks if jobs are waiting in the shared backlog.
+     *
+     * @return true if the backlog is not empty
+     */
+    public boolean hasBacklog() {
+        return backlogSize > 0;
+    }
+
+    /**
+     * Computes the share of worker time spent on jobs since the city started.
+     *
+     * @return utilisation between 0 and 1
+     */
+    public double getUtilisation() {
+        List<Worker> workers = city.getWorkers();
+        long working = 0;
+        for (int i = 0, n = workers.size(); i < n; i++) {
+            working += workers.get(i).getWorkNanos();
+        }
+        long available = (System.nanoTime() - startNanos) * Math.max(1, workers.size());
+        return Math.min(1.0, working / (double) available);
+    }
+
+    /**
+     * Builds a report of marketplace activity so far.
+     *
+     * @return the marketplace report
+     */
+    public String getReport() {
+        return "Job market: " + posted.get() + " jobs posted, " + backlogged.get() + " went to the backlog, "
+                + stolen.get() + " stolen, worker utilisation " + String.format("%.0f%%", getUtilisation() * 100) + ".";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.straxov.metrics;
+
+/**
+ * Fixed-size ring buffer of timestamped samples backed by primitive arrays.
+ * Once full, every new sample overwrites the oldest one, so memory and recording cost stay constant.
+ */
+public class RingSeries {
+    private final long[] times;
+    private final double[] values;
+    private int next;
+    private int size;
+
+    /**
+     * Creates an empty ring buffer.
+     *
+     * @param capacity maximum number of samples kept
+     */
+    public RingSeries(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.times = new long[capacity];
+        this.values = new double[capacity];
+    }
+
+    /**
+     * Appends a sample, overwriting the oldest one when full.
+     *
+     * @param time  sample time in milliseconds
+     * @param value sample value
+     */
+    public synchronized void add(long time, double value) {
+        times[next] = time;
+        values[next] = value;
+        next = (next + 1) % times.length;
+        if (size < times.length) size++;
+    }
+
+    /**
+     * Gets the number of samples currently kept.
+     *
+     * @return number of samples
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the buffer is full, so that the next sample overwrites the oldest one.
+     * A buffer that is not full still holds every sample added to it.
+     *
+     * @return true if full
+     */
+    public synchronized boolean isFull() {
+        return size == times.length;
+    }
+
+    /**
+     * Gets the time of the oldest sample kept.
+     *
+     * @return oldest sample time, or Long.MAX_VALUE if empty
+     */
+    public synchronized long oldestTime() {
+        return size == 0 ? Long.MAX_VALUE : times[(next - size + times.length) % times.length];
+    }
+
+    /**
+     * Copies samples with time in [from, to] in chronological order.
+     *
+     * @param from inclusive start time in milliseconds
+     * @param to   inclusive end time in milliseconds
+     * @return the matching samples
+     */
+    public synchronized Slice range(long from, long to) {
+        int start = (next - size + times.length) % times.length;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            long time = times[(start + i) % times.length];
+            if (time >= from && time <= to) count++;
+        }
+        long[] outTimes = new long[count];
+        double[] outValues = new double[count];
+        int j = 0;
+        for (int i = 0; i < size && j < count; i++) {
+            int index = (start + i) % times.length;
+            if (times[index] >= from && times[index] <= to) {
+                outTimes[j] = times[index];
+                outValues[j] = values[index];
+                j++;
+            }
+        }
+        return new Slice(outTimes, outValues);
+    }
+
+    /**
+     * Chronological copy of samples from a ring buffer.
+     */
+    public static final class Slice {
+        private final long[] times;
+        private final double[] values;
+
+        private Slice(long[] times, double[] values) {
+            this.times = times;
+            this.values = values;
+        }
+
+        /**
+         * Gets the sample times in milliseconds.
+         *
+         * @return sample times
+         */
+        public long[] getTimes() {
+            return times;
+        }
+
+        /**
+         * Gets the sample values.
+         *
+         * @return sample values
+         */
+        public double[] getValues() {
+            return values;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.straxov.metrics;
+
+/**
+ * Time series with downsampling tiers.
+ * Tier 0 keeps raw samples; every next tier keeps the mean of {@code factor} samples of the previous one,
+ * so coarse tiers cover a much longer history in the same fixed memory.
+ */
+public class TieredSeries {
+    private final RingSeries[] tiers;
+    private final int factor;
+    private final double[] pendingSum;
+    private final int[] pendingCount;
+
+    /**
+     * Creates a tiered series.
+     *
+     * @param tierCount number of tiers, at least 1
+     * @param capacity  samples kept per tier
+     * @param factor    number of samples averaged into one sample of the next tier
+     */
+    public TieredSeries(int tierCount, int capacity, int factor) {
+        if (tierCount <= 0 || factor <= 1) {
+            throw new IllegalArgumentException("Need at least one tier and a downsampling factor above 1");
+        }
+        this.tiers = new RingSeries[tierCount];
+        for (int i = 0; i < tierCount; i++) {
+            tiers[i] = new RingSeries(capacity);
+        }
+        this.factor = factor;
+        this.pendingSum = new double[tierCount];
+        this.pendingCount = new int[tierCount];
+    }
+
+    /**
+     * Records a raw sample and cascades completed averages into coarser tiers.
+     * Called by a single sampler thread.
+     *
+     * @param time  sample time in milliseconds
+     * @param value sample value
+     */
+    public void record(long time, double value) {
+        tiers[0].add(time, value);
+        for (int tier = 1; tier < tiers.length; tier++) {
+            pendingSum[tier] += value;
+            if (++pendingCount[tier] < factor) return;
+            value = pendingSum[tier] / factor;
+            pendingSum[tier] = 0;
+            pendingCount[tier] = 0;
+            tiers[tier].add(time, value);
+        }
+    }
+
+    /**
+     * Returns samples in [from, to] from the finest tier whose history still reaches back to {@code from}.
+     * A tier that is not full yet holds everything recorded so far, so it also serves queries starting before
+     * the first sample. If every tier has dropped samples after {@code from}, the tier reaching back furthest
+     * is used.
+     *
+     * @param from inclusive start time in milliseconds
+     * @param to   inclusive end time in milliseconds
+     * @return the matching samples
+     */
+    public RingSeries.Slice range(long from, long to) {
+        RingSeries longest = tiers[0];
+        for (RingSeries tier : tiers) {
+            if (!tier.isFull() || tier.oldestTime() <= from) {
+                return tier.range(from, to);
+            }
+            if (tier.oldestTime() < longest.oldestTime()) {
+                longest = tier;
+            }
+        }
+        return longest.range(from, to);
+    }
+
+    /**
+     * Gets one tier of the series.
+     *
+     * @param tier the tier index, 0 being raw samples
+     * @return the tier's ring buffer
+     */
+    public RingSeries getTier(int tier) {
+        return tiers[tier];
+    }
+
+    /**
+     * Gets the number of tiers.
+     *
+     * @return number of tiers
+     */
+    public int getTierCount() {
+        return tiers.length;
+    }
+}
@@ -0,0 +1,250 @@
+package com.straxov.metrics;
+
+import com.straxov.city.City;
+import com.straxov.entitiy.Bank;
+import com.straxov.entitiy.Spender;
+import com.straxov.entitiy.Worker;
+import com.straxov.scheduler.TimingWheel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory time-series store of city aggregates.
+ * Periodically samples money totals per category, per-bank balances and loan/deposit rates into
+ * {@link TieredSeries}, supports range queries and exports everything to a compact columnar file.
+ *
+ * <p>Export layout (big-endian): magic {@code "CTS1"}, int series count; per series a short name length,
+ * UTF-8 name and int tier count; per tier an int sample count followed by a column of long timestamps
+ * and a column of double values.</p>
+ *
+ * <p>Aggregate series are created with the store and each bank's series when the bank registers, so sampling
+ * records into cached handles without building names or looking them up.</p>
+ */
+public class TimeSeriesStore implements Runnable {
+    private static final int MAGIC = 0x43545331;
+
+    private final City city;
+    private final long interval;
+    private final int tierCount;
+    private final int capacity;
+    private final int factor;
+    private final Map<String, TieredSeries> series = new LinkedHashMap<>();
+    private final TieredSeries banksMoney;
+    private final TieredSeries workersMoney;
+    private final TieredSeries spendersMoney;
+    private final TieredSeries cityMoney;
+    private final TieredSeries loansRate;
+    private final TieredSeries depositsRate;
+    private volatile TieredSeries[] bankSeries = new TieredSeries[0];
+    private volatile boolean running = true;
+    private TimingWheel scheduler;
+    private long lastSampleTime;
+    private long lastLoans;
+    private long lastDeposits;
+
+    /**
+     * Creates a store for the given city.
+     *
+     * @param city      the city to sample
+     * @param interval  sampling interval in milliseconds
+     * @param tierCount number of downsampling tiers
+     * @param capacity  samples kept per tier
+     * @param factor    downsampling factor between tiers
+     */
+    public TimeSeriesStore(City city, long interval, int tierCount, int capacity, int factor) {
+        this.city = city;
+        this.interval = interval;
+        this.tierCount = tierCount;
+        this.capacity = capacity;
+        this.factor = factor;
+        banksMoney = series("banks.money");
+        workersMoney = series("workers.money");
+        spendersMoney = series("spenders.money");
+        cityMoney = series("city.money");
+        loansRate = series("loans.rate");
+        depositsRate = series("deposits.rate");
+    }
+
+    /**
+     * Creates the money series of a bank, indexed by the bank's id. Called for every bank of the city when
+     * sampling starts and for each bank added later; registering a bank again is a no-op.
+     *
+     * @param bank the bank to track
+     */
+    public synchronized void register(Bank bank) {
+        int id = bank.getId();
+        TieredSeries[] current = bankSeries;
+        if (id < current.length && current[id] != null) return;
+        TieredSeries[] grown = id < current.length
+                ? current.clone()
+                : Arrays.copyOf(current, Math.max(id + 1, current.length * 2));
+        grown[id] = series("bank." + id + ".money");
+        bankSeries = grown;
+    }
+
+    /**
+     * Starts periodic sampling on the given scheduler.
+     *
+     * @param scheduler the scheduler driving sampling
+     */
+    public void start(TimingWheel scheduler) {
+        this.scheduler = scheduler;
+        List<Bank> banks = city.getBanks();
+        for (int i = 0, n = banks.size(); i < n; i++) {
+            register(banks.get(i));
+        }
+        lastSampleTime = System.currentTimeMillis();
+        scheduler.submit(this, interval);
+    }
+
+    /**
+     * Stops periodic sampling.
+     */
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * Takes one sample of all aggregates and schedules the next one.
+     */
+    @Override
+    public void run() {
+        if (!running) return;
+        sample(System.currentTimeMillis());
+        scheduler.submit(this, interval);
+    }
+
+    /**
+     * Records one sample of all aggregates at the given time.
+     *
+     * @param time sample time in milliseconds
+     */
+    public void sample(long time) {
+        long bankTotal = 0;
+        long loans = 0;
+        long deposits = 0;
+        List<Bank> banks = city.getBanks();
+        for (int i = 0, n = banks.size(); i < n; i++) {
+            Bank bank = banks.get(i);
+            int money = bank.getMoney().get();
+            bankTotal += money;
+            loans += bank.getLoanCount();
+            deposits += bank.getDepositCount();
+            bankSeries(bank).record(time, money);
+        }
+        long workerTotal = 0;
+        List<Worker> workers = city.getWorkers();
+        for (int i = 0, n = workers.size(); i < n; i++) workerTotal += workers.get(i).getMoney();
+        long spenderTotal = 0;
+        List<Spender> spenders = city.getSpenders();
+        for (int i = 0, n = spenders.size(); i < n; i++) spenderTotal += spenders.get(i).getMoney();
+
+        double seconds = Math.max(1, time - lastSampleTime) / 1000.0;
+        banksMoney.record(time, bankTotal);
+        workersMoney.record(time, workerTotal);
+        spendersMoney.record(time, spenderTotal);
+        cityMoney.record(time, bankTotal + workerTotal + spenderTotal);
+        loansRate.record(time, (loans - lastLoans) / seconds);
+        depositsRate.record(time, (deposits - lastDeposits) / seconds);
+        lastSampleTime = time;
+        lastLoans = loans;
+        lastDeposits = deposits;
+    }
+
+    /**
+     * Gets the names of all recorded series.
+     *
+     * @return series names
+     */
+    public synchronized Set<String> getSeriesNames() {
+        return Set.copyOf(series.keySet());
+    }
+
+    /**
+     * Returns samples of a series in [from, to] at the finest resolution still covering the range.
+     *
+     * @param name the series name, e.g. "banks.money" or "bank.1.money"
+     * @param from inclusive start time in milliseconds
+     * @param to   inclusive end time in milliseconds
+     * @return the matching samples
+     * @throws IllegalArgumentException if the series does not exist
+     */
+    public RingSeries.Slice query(String name, long from, long to) {
+        TieredSeries tiered;
+        synchronized (this) {
+            tiered = series.get(name);
+        }
+        if (tiered == null) {
+            throw new IllegalArgumentException("Unknown series: " + name);
+        }
+        return tiered.range(from, to);
+    }
+
+    /**
+     * Writes all series and tiers to a columnar file.
+     *
+     * @param file the target file, replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public void export(Path file) throws IOException {
+        List<Map.Entry<String, TieredSeries>> entries;
+        synchronized (this) {
+            entries = new ArrayList<>(series.entrySet());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(8);
+            header.putInt(MAGIC).putInt(entries.size()).flip();
+            write(channel, header);
+            for (Map.Entry<String, TieredSeries> entry : entries) {
+                byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                TieredSeries tiered = entry.getValue();
+                ByteBuffer seriesHeader = ByteBuffer.allocate(2 + name.length + 4);
+                seriesHeader.putShort((short) name.length).put(name).putInt(tiered.getTierCount()).flip();
+                write(channel, seriesHeader);
+                for (int tier = 0; tier < tiered.getTierCount(); tier++) {
+                    RingSeries.Slice slice = tiered.getTier(tier).range(Long.MIN_VALUE, Long.MAX_VALUE);
+                    int count = slice.getTimes().length;
+                    ByteBuffer block = ByteBuffer.allocate(4 + count * 16);
+                    block.putInt(count);
+                    block.asLongBuffer().put(slice.getTimes());
+                    block.position(4 + count * 8);
+                    block.asDoubleBuffer().put(slice.getValues());
+                    block.position(0).limit(4 + count * 16);
+                    write(channel, block);
+                }
+            }
+        }
+    }
+
+    private TieredSeries bankSeries(Bank bank) {
+        int id = bank.getId();
+        TieredSeries[] handles = bankSeries;
+        if (id >= handles.length || handles[id] == null) {
+            register(bank);
+            handles = bankSeries;
+        }
+        return handles[id];
+    }
+
+    private synchronized TieredSeries series(String name) {
+        return series.computeIfAbsent(name, key -> new TieredSeries(tierCount, capacity, factor));
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.straxov.scheduler;
+
+import com.straxov.logger.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hashed timing wheel shared by all clients of the city.
+ * Delayed actions (job completions, retry back-offs, spender pauses) are stored as cheap
+ * timer entries in a circular array of buckets instead of occupying sleeping threads.
+ * A single ticker thread advances the wheel and hands expired tasks to a small pool of executor threads.
+ * Timer error is bounded by one tick duration.
+ *
+ * <p>Timer entries are linked intrusively through the pending stack, the buckets and the ready queue, and
+ * are recycled through a free list.</p>
+ */
+public class TimingWheel {
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long startTime;
+    private final AtomicReference<Timeout> pending = new AtomicReference<>();
+    private final Object freeLock = new Object();
+    private Timeout freeHead;
+    private final Object readyLock = new Object();
+    private Timeout readyHead;
+    private Timeout readyTail;
+    private boolean shutdown;
+    private final int threads;
+    private Thread[] executors;
+    private Thread ticker;
+    private volatile boolean running = true;
+    private long tick;
+
+    /**
+     * Creates a new timing wheel.
+     *
+     * @param tickDuration duration of one tick in milliseconds
+     * @param wheelSize    number of buckets, rounded up to a power of two
+     * @param threads      number of threads executing expired tasks
+     */
+    public TimingWheel(long tickDuration, int wheelSize, int threads) {
+        if (tickDuration <= 0 || wheelSize <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("Tick duration, wheel size and threads must be positive");
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickDuration);
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.startTime = System.nanoTime();
+        this.threads = threads;
+    }
+
+    /**
+     * Creates and starts the executor and ticker threads. Tasks may be scheduled before the wheel is started;
+     * a wheel that is never started has no threads.
+     */
+    public synchronized void start() {
+        if (ticker != null) {
+            throw new IllegalStateException("Timing wheel already started");
+        }
+        executors = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            executors[i] = new Thread(this::runExecutor, "Scheduler - " + (i + 1));
+            executors[i].setDaemon(true);
+            executors[i].start();
+        }
+        ticker = new Thread(this::runTicker, "Scheduler - ticker");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    /**
+     * Stops the ticker and waits for already dispatched tasks to finish.
+     * Timer entries that have not expired yet are dropped.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if (ticker == null) return;
+        ticker.interrupt();
+        ticker.join();
+        synchronized (readyLock) {
+            shutdown = true;
+            readyLock.notifyAll();
+        }
+        for (Thread executor : executors) {
+            executor.join(TimeUnit.MINUTES.toMillis(1));
+        }
+    }
+
+    /**
+     * Schedules a task to run once after the given delay.
+     * The timer entry comes from the free list, or is created if the list is empty, and goes back to it
+     * after the task ran.
+     *
+     * @param task    the task to run
+     * @param delayMs delay in milliseconds
+     */
+    public void submit(Runnable task, long delayMs) {
+        enqueue(obtain(), task, delayMs);
+    }
+
+    /**
+     * Hands a task to the executor threads right away, without waiting for the next tick.
+     * It runs after the tasks already in the ready queue.
+     *
+     * @param task the task to run
+     */
+    public void execute(Runnable task) {
+        Timeout timeout = obtain();
+        timeout.task = task;
+        dispatch(timeout);
+    }
+
+    /**
+     * Adds the given number of timer entries to the free list, ready for that many more outstanding tasks.
+     * Meant to be sized from the population when a city starts or grows.
+     *
+     * @param entries number of timer entries to add
+     */
+    public void reserve(int entries) {
+        for (int i = 0; i < entries; i++) {
+            recycle(new Timeout());
+        }
+    }
+
+    /**
+     * Takes a timer entry from the free list, creating one if the list is empty.
+     *
+     * @return an unused timer entry
+     */
+    private Timeout obtain() {
+        synchronized (freeLock) {
+            Timeout timeout = freeHead;
+            if (timeout != null) {
+                freeHead = timeout.next;
+                timeout.next = null;
+                return timeout;
+            }
+        }
+        return new Timeout();
+    }
+
+    /**
+     * Pushes a timeout onto the pending stack; the ticker moves it into its bucket on the next tick.
+     *
+     * @param timeout the timeout
+     * @param task    the task to run
+     * @param delayMs delay in milliseconds
+     */
+    private void enqueue(Timeout timeout, Runnable task, long delayMs) {
+        timeout.task = task;
+        timeout.deadline = System.nanoTime() - startTime + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMs));
+        Timeout head;
+        do {
+            head = pending.get();
+            timeout.next = head;
+        } while (!pending.compareAndSet(head, timeout));
+    }
+
+    /**
+     * Main loop of the ticker thread.
+     */
+    private void runTicker() {
+        while (running) {
+            try {
+                waitForNextTick();
+                transferPending();
+                expire(wheel[(int) (tick & mask)]);
+                tick++;
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Sleeps until the end of the current tick.
+     *
+     * @throws InterruptedException if the ticker is interrupted
+     */
+    private void waitForNextTick() throws InterruptedException {
+        long deadline = tickNanos * (tick + 1);
+        while (true) {
+            long now = System.nanoTime() - startTime;
+            long sleepMs = TimeUnit.NANOSECONDS.toMillis(deadline - now + 999_999);
+            if (sleepMs <= 0) {
+                return;
+            }
+            Thread.sleep(sleepMs);
+        }
+    }
+
+    /**
+     * Moves newly scheduled timeouts into their buckets.
+     */
+    private void transferPending() {
+        Timeout timeout = pending.getAndSet(null);
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.next = null;
+            place(timeout);
+            timeout = next;
+        }
+    }
+
+    /**
+     * Puts a timeout into the bucket of its deadline.
+     *
+     * @param timeout the timeout
+     */
+    private void place(Timeout timeout) {
+        long calculated = timeout.deadline / tickNanos;
+        timeout.remainingRounds = (calculated - tick) / wheel.length;
+        long ticks = Math.max(calculated, tick);
+        wheel[(int) (ticks & mask)].add(timeout);
+    }
+
+    /**
+     * Dispatches all timeouts in the bucket whose last round has come.
+     *
+     * @param bucket the current bucket
+     */
+    private void expire(Bucket bucket) {
+        Timeout timeout = bucket.head;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.remainingRounds <= 0) {
+                bucket.remove(timeout);
+                dispatch(timeout);
+            } else {
+                timeout.remainingRounds--;
+            }
+            timeout = next;
+        }
+    }
+
+    /**
+     * Appends an expired or directly executed timeout to the ready queue and wakes an executor thread.
+     *
+     * @param timeout the timeout
+     */
+    private void dispatch(Timeout timeout) {
+        synchronized (readyLock) {
+            if (readyTail == null) {
+                readyHead = readyTail = timeout;
+            } else {
+                readyTail.next = timeout;
+                readyTail = timeout;
+            }
+            readyLock.notify();
+        }
+    }
+
+    /**
+     * Main loop of an executor thread: runs ready tasks until the wheel is stopped and the queue is drained.
+     * A task that throws, errors included, is logged and the thread goes on with the next one.
+     */
+    private void runExecutor() {
+        while (true) {
+            Timeout timeout;
+            synchronized (readyLock) {
+                while (readyHead == null && !shutdown) {
+                    try {
+                        readyLock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                timeout = readyHead;
+                if (timeout == null) return;
+                readyHead = timeout.next;
+                if (readyHead == null) readyTail = null;
+                timeout.next = null;
+            }
+            Runnable task = timeout.task;
+            recycle(timeout);
+            try {
+                task.run();
+            } catch (Throwable e) {
+                Logger.log("Scheduled task failed: " + e);
+            }
+        }
+    }
+
+    /**
+     * Returns a timer entry to the free list.
+     *
+     * @param timeout the finished timeout
+     */
+    private void recycle(Timeout timeout) {
+        timeout.task = null;
+        synchronized (freeLock) {
+            timeout.next = freeHead;
+            freeHead = timeout;
+        }
+    }
+
+    /**
+     * Timer entry of a scheduled task.
+     */
+    private static final class Timeout {
+        private Runnable task;
+        private long deadline;
+        private long remainingRounds;
+        private Timeout prev;
+        private Timeout next;
+    }
+
+    /**
+     * Doubly linked list of timeouts, accessed only by the ticker thread.
+     */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+        }
+    }
+}
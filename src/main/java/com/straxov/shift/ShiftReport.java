@@ -0,0 +1,110 @@
+package com.straxov.shift;
+
+import com.straxov.city.City;
+import com.straxov.entitiy.Bank;
+import com.straxov.loader.ConfigLoader;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Reports how the shift scheduler changes bank load.
+ * Runs the same city three times: with all workers starting at once, with staggered shift starts and jittered
+ * deposits, and with staggered lunches on top. It compares the depth of the bank queue clients joined on arrival
+ * and the number of bank arrivals per sampling window. The first two runs do the same work, so they compare at
+ * equal throughput; a worker at lunch earns nothing and makes no deposits, so the third run does less work.
+ * Depths are averaged over arrivals and peak arrivals are also given relative to the average window, so every
+ * run is compared at its own throughput. Autoscaling is off so the bank count stays fixed.
+ *
+ * <p>By default each run lasts long enough for {@value #DEPOSIT_CYCLES} deposit cycles of a worker without lunches,
+ * so repeat deposits are measured and not only the first wave.</p>
+ *
+ * <p>Usage: {@code java com.straxov.shift.ShiftReport [workers] [run ms]}.</p>
+ */
+public class ShiftReport {
+    private static final long WINDOW_MS = 100;
+    private static final String NO_LUNCH = String.valueOf(24 * 3600 * 1000);
+    private static final int DEPOSIT_CYCLES = 5;
+
+    /**
+     * Entry point of the report.
+     *
+     * @param args optional worker count and run duration in milliseconds
+     * @throws Exception if a city cannot be run
+     */
+    public static void main(String[] args) throws Exception {
+        ConfigLoader base = new ConfigLoader();
+        base.loadFromPropertiesFile("src/main/resources/config.properties");
+        int workers = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+        long depositCycle = base.getWorkerWorkDuration() * base.getWorkerMoneyLimit() / base.getWorkerSalary();
+        long duration = args.length > 1 ? Long.parseLong(args[1]) : DEPOSIT_CYCLES * depositCycle;
+        ConfigLoader config = base
+                .withOverride("workers.count", String.valueOf(workers))
+                .withOverride("spenders.count", String.valueOf(workers * 4 / 3))
+                .withOverride("bank.initial.money", "1000000")
+                .withOverride("autoscale.enabled", "false");
+
+        System.out.println("Bank load over " + duration + "ms with " + config.getBanksCount() + " banks and "
+                + workers + " workers, arrivals counted per " + WINDOW_MS + "ms window:");
+        System.out.println(String.format("%-10s %10s %12s %10s %10s %14s %14s %10s", "shifts", "arrivals",
+                "deposits/wkr", "peak depth", "avg depth", "peak arrivals", "avg arrivals", "peak/avg"));
+        print("off", workers, run(config.withOverride("shift.enabled", "false"), duration));
+        print("staggered", workers, run(config
+                .withOverride("shift.enabled", "true")
+                .withOverride("shift.lunch.after", NO_LUNCH), duration));
+        print("lunches", workers, run(config.withOverride("shift.enabled", "true"), duration));
+    }
+
+    private static long[] run(ConfigLoader config, long duration) throws InterruptedException {
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        City city = new City(config);
+        long peakWindow = 0;
+        long windows = 0;
+        try {
+            city.start();
+            long arrivals = 0;
+            long end = System.currentTimeMillis() + duration;
+            while (System.currentTimeMillis() < end) {
+                Thread.sleep(WINDOW_MS);
+                long now = countArrivals(city.getBanks());
+                peakWindow = Math.max(peakWindow, now - arrivals);
+                arrivals = now;
+                windows++;
+            }
+        } finally {
+            city.stop();
+            System.setOut(console);
+        }
+        long arrivals = 0;
+        long depthTotal = 0;
+        long peakDepth = 0;
+        long deposits = 0;
+        for (Bank bank : city.getBanks()) {
+            arrivals += bank.getArrivalCount();
+            deposits += bank.getDepositCount();
+            depthTotal += bank.getQueueDepthTotal();
+            peakDepth = Math.max(peakDepth, bank.getPeakQueueDepth());
+        }
+        return new long[]{arrivals, peakDepth, depthTotal, peakWindow, windows, deposits};
+    }
+
+    private static long countArrivals(List<Bank> banks) {
+        long count = 0;
+        for (int i = 0, n = banks.size(); i < n; i++) {
+            count += banks.get(i).getArrivalCount();
+        }
+        return count;
+    }
+
+    private static void print(String label, int workers, long[] result) {
+        long arrivals = result[0];
+        double averageDepth = arrivals == 0 ? 0 : result[2] / (double) arrivals;
+        double averageWindow = result[4] == 0 ? 0 : arrivals / (double) result[4];
+        double peakRatio = averageWindow == 0 ? 0 : result[3] / averageWindow;
+        double depositsPerWorker = result[5] / (double) workers;
+        System.out.println(String.format("%-10s %10d %12.1f %10d %10.2f %14d %14.1f %10.2f",
+                label, arrivals, depositsPerWorker, result[1], averageDepth, result[3], averageWindow, peakRatio));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,168 @@
+package com.straxov.shift;
+
+import com.straxov.city.City;
+import com.straxov.entitiy.Worker;
+import com.straxov.logger.Logger;
+import com.straxov.scheduler.TimingWheel;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shift scheduler spreading worker activity over time to flatten bank load peaks.
+ * Without it all workers start at once, work identical slices and reach the money limit together, so deposits
+ * hit the banks in waves. The scheduler starts workers at evenly staggered offsets, sends each of them to lunch
+ * after a fixed stretch of work, so lunches inherit the stagger, and delays every deposit by a random jitter.
+ * Breaks go through {@link Worker#setOnBreak}, which the autoscaler does not count as retirements. The scheduler
+ * keeps the worker-time spent on breaks, and spenders leave the part of a hire wait the workforce spent away out
+ * of what they report to the autoscaler, so lunches alone do not lead to hiring.
+ */
+public class ShiftScheduler {
+    private final City city;
+    private final long stagger;
+    private final long lunchAfter;
+    private final long lunchDuration;
+    private final long depositJitter;
+    private final AtomicLong lunches = new AtomicLong();
+    private final AtomicLong delayedDeposits = new AtomicLong();
+    private final AtomicLong depositDelayTotal = new AtomicLong();
+    private final AtomicLong enrolled = new AtomicLong();
+    private final Object breakLock = new Object();
+    private int workersOnBreak;
+    private long breakNanos;
+    private long breakChanged = System.nanoTime();
+    private volatile boolean running = false;
+    private TimingWheel scheduler;
+
+    /**
+     * Creates a shift scheduler for the given city.
+     *
+     * @param city          the city whose workers are scheduled
+     * @param stagger       window over which shift starts are spread, in milliseconds
+     * @param lunchAfter    work time before each lunch, in milliseconds
+     * @param lunchDuration length of a lunch break, in milliseconds
+     * @param depositJitter maximum random delay of a deposit, in milliseconds
+     */
+    public ShiftScheduler(City city, long stagger, long lunchAfter, long lunchDuration, long depositJitter) {
+        if (stagger < 0 || lunchAfter <= 0 || lunchDuration < 0 || depositJitter < 0) {
+            throw new IllegalArgumentException("Shift durations must not be negative and work time must be positive");
+        }
+        this.city = city;
+        this.stagger = stagger;
+        this.lunchAfter = lunchAfter;
+        this.lunchDuration = lunchDuration;
+        this.depositJitter = depositJitter;
+    }
+
+    /**
+     * Puts every worker of the city off shift and schedules their staggered shift starts.
+     *
+     * @param scheduler the scheduler driving the shifts
+     */
+    public void start(TimingWheel scheduler) {
+        this.scheduler = scheduler;
+        running = true;
+        List<Worker> workers = city.getWorkers();
+        int n = workers.size();
+        for (int i = 0; i < n; i++) {
+            Worker worker = workers.get(i);
+            setOnBreak(worker, true);
+            enrolled.incrementAndGet();
+            scheduler.submit(new Shift(worker), stagger * i / n);
+        }
+    }
+
+    /**
+     * Schedules lunches of a worker added to the running city; the worker starts working right away.
+     *
+     * @param worker the new worker
+     */
+    public void enroll(Worker worker) {
+        if (!running) return;
+        enrolled.incrementAndGet();
+        scheduler.submit(new Shift(worker), lunchAfter);
+    }
+
+    /**
+     * Stops scheduling shifts; workers on a break stay there.
+     */
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * Gets the worker-time spent on breaks so far, the running total of workers on a break multiplied by time.
+     * The growth between two readings divided by the number of workers is how long the whole workforce was
+     * away in between.
+     *
+     * @param now the current time from System.nanoTime()
+     * @return worker-time on breaks in nanoseconds
+     */
+    public long getBreakNanos(long now) {
+        synchronized (breakLock) {
+            return breakNanos + workersOnBreak * Math.max(0, now - breakChanged);
+        }
+    }
+
+    /**
+     * Draws the delay of a deposit a worker is about to make.
+     *
+     * @return delay in milliseconds, zero if shifts are not running
+     */
+    public long nextDepositDelay() {
+        if (!running || depositJitter == 0) return 0;
+        long delay = ThreadLocalRandom.current().nextLong(depositJitter + 1);
+        delayedDeposits.incrementAndGet();
+        depositDelayTotal.addAndGet(delay);
+        return delay;
+    }
+
+    /**
+     * Builds a report of shifts and breaks so far.
+     *
+     * @return the shift report
+     */
+    public String getReport() {
+        long deposits = delayedDeposits.get();
+        double averageDelay = deposits == 0 ? 0 : depositDelayTotal.get() / (double) deposits;
+        return "Shifts: " + enrolled.get() + " workers on staggered shifts, " + lunches.get() + " lunch breaks, "
+                + deposits + " deposits delayed by " + String.format("%.0f", averageDelay) + "ms on average.";
+    }
+
+    private void setOnBreak(Worker worker, boolean onBreak) {
+        synchronized (breakLock) {
+            long now = System.nanoTime();
+            breakNanos += workersOnBreak * Math.max(0, now - breakChanged);
+            breakChanged = now;
+            workersOnBreak += onBreak ? 1 : -1;
+        }
+        worker.setOnBreak(onBreak);
+    }
+
+    /**
+     * Shift of one worker, alternating between work and lunch.
+     */
+    private final class Shift implements Runnable {
+        private final Worker worker;
+
+        private Shift(Worker worker) {
+            this.worker = worker;
+        }
+
+        @Override
+        public void run() {
+            if (!running) return;
+            if (worker.isOnBreak()) {
+                setOnBreak(worker, false);
+                Logger.line().append(worker.getName()).append(" started working.").log();
+                scheduler.submit(this, lunchAfter);
+            } else {
+                setOnBreak(worker, true);
+                lunches.incrementAndGet();
+                Logger.line().append(worker.getName()).append(" went to lunch.").log();
+                scheduler.submit(this, lunchDuration);
+            }
+        }
+    }
+}
\ No newline at end of file
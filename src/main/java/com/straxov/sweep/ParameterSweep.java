@@ -0,0 +1,189 @@
+package com.straxov.sweep;
+
+import com.straxov.city.City;
+import com.straxov.entitiy.Bank;
+import com.straxov.entitiy.Spender;
+import com.straxov.entitiy.Worker;
+import com.straxov.loader.ConfigLoader;
+import com.straxov.logger.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Runs many independent cities concurrently over a grid of configuration parameters.
+ * Each grid point gets its own City with its own configuration, scheduler and id space;
+ * results are streamed to the caller as soon as each city finishes its day.
+ */
+public class ParameterSweep {
+    /**
+     * Prefix of configuration parameters describing the sweep grid, e.g. {@code sweep.grid.worker.salary = 1,2,5}.
+     */
+    public static final String GRID_PREFIX = "sweep.grid.";
+
+    private final ConfigLoader base;
+    private final int parallelism;
+    private final Map<String, List<String>> grid = new LinkedHashMap<>();
+
+    /**
+     * Creates a sweep over the given base configuration.
+     *
+     * @param base        the configuration shared by all runs
+     * @param parallelism number of cities simulated at the same time
+     */
+    public ParameterSweep(ConfigLoader base, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        this.base = base;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Creates a sweep whose grid is read from {@code sweep.grid.*} parameters of the configuration.
+     * A parallelism of 0 means one city per available processor.
+     *
+     * @param config the configuration
+     * @return a new ParameterSweep
+     */
+    public static ParameterSweep fromConfig(ConfigLoader config) {
+        int parallelism = Integer.parseInt(config.getProperty("sweep.parallelism"));
+        if (parallelism == 0) {
+            parallelism = Runtime.getRuntime().availableProcessors();
+        }
+        ParameterSweep sweep = new ParameterSweep(config, parallelism);
+        for (String name : config.getPropertyNames(GRID_PREFIX)) {
+            String[] values = config.getProperty(name).split(",");
+            for (int i = 0; i < values.length; i++) {
+                values[i] = values[i].trim();
+            }
+            sweep.addParameter(name.substring(GRID_PREFIX.length()), Arrays.asList(values));
+        }
+        return sweep;
+    }
+
+    /**
+     * Adds a parameter axis to the grid.
+     *
+     * @param key    the configuration parameter name
+     * @param values the values to try
+     * @return this sweep
+     */
+    public ParameterSweep addParameter(String key, List<String> values) {
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("No values for parameter " + key);
+        }
+        grid.put(key, List.copyOf(values));
+        return this;
+    }
+
+    /**
+     * Expands the grid into the cartesian product of all parameter values.
+     *
+     * @return one parameter map per grid point
+     */
+    public List<Map<String, String>> expand() {
+        List<Map<String, String>> points = new ArrayList<>();
+        points.add(new LinkedHashMap<>());
+        for (Map.Entry<String, List<String>> axis : grid.entrySet()) {
+            List<Map<String, String>> next = new ArrayList<>();
+            for (Map<String, String> point : points) {
+                for (String value : axis.getValue()) {
+                    Map<String, String> extended = new LinkedHashMap<>(point);
+                    extended.put(axis.getKey(), value);
+                    next.add(extended);
+                }
+            }
+            points = next;
+        }
+        return points;
+    }
+
+    /**
+     * Runs all grid points and streams their results to the sink in completion order.
+     *
+     * @param sink consumer receiving each result, called from the calling thread
+     * @return number of completed runs
+     * @throws InterruptedException if interrupted while waiting for runs
+     */
+    public int run(Consumer<SweepResult> sink) throws InterruptedException {
+        List<Map<String, String>> points = expand();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            CompletionService<SweepResult> completion = new ExecutorCompletionService<>(executor);
+            for (Map<String, String> point : points) {
+                completion.submit(() -> simulate(point));
+            }
+            for (int i = 0; i < points.size(); i++) {
+                try {
+                    sink.accept(completion.take().get());
+                } catch (ExecutionException e) {
+                    throw new RuntimeException("Sweep run failed", e.getCause());
+                }
+            }
+            return points.size();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Simulates one day of a city configured for the given grid point.
+     * The city is stopped even if the run is interrupted, so no scheduler threads outlive a failed sweep.
+     *
+     * @param point the grid parameters
+     * @return the aggregated result
+     * @throws InterruptedException if interrupted during the simulation
+     */
+    private SweepResult simulate(Map<String, String> point) throws InterruptedException {
+        ConfigLoader config = base;
+        for (Map.Entry<String, String> parameter : point.entrySet()) {
+            config = config.withOverride(parameter.getKey(), parameter.getValue());
+        }
+        long started = System.nanoTime();
+        City city = new City(config);
+        int totalStart = city.getTotalMoney();
+        city.start();
+        try {
+            Thread.sleep(config.getDayDuration());
+        } finally {
+            city.stop();
+        }
+
+        int bankMoney = 0;
+        for (Bank bank : city.getBanks()) bankMoney += bank.getMoney().get();
+        int workerMoney = 0;
+        for (Worker worker : city.getWorkers()) workerMoney += worker.getMoney();
+        int spenderMoney = 0;
+        for (Spender spender : city.getSpenders()) spenderMoney += spender.getMoney();
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        return new SweepResult(point, totalStart, city.getTotalMoney(), bankMoney, workerMoney, spenderMoney, elapsedMs);
+    }
+
+    /**
+     * Entry point running the sweep described in config.properties.
+     *
+     * @param args Command line arguments (not used)
+     * @throws Exception if the sweep encounters errors
+     */
+    public static void main(String[] args) throws Exception {
+        ConfigLoader config = new ConfigLoader();
+        config.loadFromPropertiesFile("src/main/resources/config.properties");
+        Logger.setEnabled(false);
+
+        ParameterSweep sweep = fromConfig(config);
+        long started = System.nanoTime();
+        int runs = sweep.run(result -> System.out.println(result));
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        System.out.println("Completed " + runs + " runs in " + elapsedMs + "ms using " + sweep.parallelism + " parallel cities.");
+    }
+}
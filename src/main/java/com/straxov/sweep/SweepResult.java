@@ -0,0 +1,112 @@
+package com.straxov.sweep;
+
+import java.util.Map;
+
+/**
+ * Aggregated outcome of one city run within a parameter sweep.
+ */
+public class SweepResult {
+    private final Map<String, String> parameters;
+    private final int totalStart;
+    private final int totalEnd;
+    private final int bankMoney;
+    private final int workerMoney;
+    private final int spenderMoney;
+    private final long elapsedMs;
+
+    /**
+     * Creates a new sweep result.
+     *
+     * @param parameters   the grid parameters of the run
+     * @param totalStart   total money in the city on day start
+     * @param totalEnd     total money in the city on day end
+     * @param bankMoney    money held by all banks on day end
+     * @param workerMoney  money held by all workers on day end
+     * @param spenderMoney money held by all spenders on day end
+     * @param elapsedMs    wall-clock duration of the run in milliseconds
+     */
+    public SweepResult(Map<String, String> parameters, int totalStart, int totalEnd,
+                       int bankMoney, int workerMoney, int spenderMoney, long elapsedMs) {
+        this.parameters = parameters;
+        this.totalStart = totalStart;
+        this.totalEnd = totalEnd;
+        this.bankMoney = bankMoney;
+        this.workerMoney = workerMoney;
+        this.spenderMoney = spenderMoney;
+        this.elapsedMs = elapsedMs;
+    }
+
+    /**
+     * Gets the grid parameters of the run.
+     *
+     * @return parameter names mapped to their values
+     */
+    public Map<String, String> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Gets the total money in the city on day start.
+     *
+     * @return total start money
+     */
+    public int getTotalStart() {
+        return totalStart;
+    }
+
+    /**
+     * Gets the total money in the city on day end.
+     *
+     * @return total end money
+     */
+    public int getTotalEnd() {
+        return totalEnd;
+    }
+
+    /**
+     * Gets the money held by all banks on day end.
+     *
+     * @return bank money
+     */
+    public int getBankMoney() {
+        return bankMoney;
+    }
+
+    /**
+     * Gets the money held by all workers on day end.
+     *
+     * @return worker money
+     */
+    public int getWorkerMoney() {
+        return workerMoney;
+    }
+
+    /**
+     * Gets the money held by all spenders on day end.
+     *
+     * @return spender money
+     */
+    public int getSpenderMoney() {
+        return spenderMoney;
+    }
+
+    /**
+     * Gets the wall-clock duration of the run.
+     *
+     * @return duration in milliseconds
+     */
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    /**
+     * Formats the result as a single report line.
+     *
+     * @return the report line
+     */
+    @Override
+    public String toString() {
+        return parameters + " start=" + totalStart + "$ end=" + totalEnd + "$ banks=" + bankMoney
+                + "$ workers=" + workerMoney + "$ spenders=" + spenderMoney + "$ time=" + elapsedMs + "ms";
+    }
+}
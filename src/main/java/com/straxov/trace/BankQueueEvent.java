@@ -0,0 +1,17 @@
+package com.straxov.trace;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A client waited for a bank to become free in Bank.serve.
+ */
+@Name("com.straxov.BankQueue")
+@Label("Bank Queue")
+class BankQueueEvent extends PhaseEvent {
+    @Label("Bank")
+    String bank;
+
+    @Label("Loan")
+    boolean credit;
+}
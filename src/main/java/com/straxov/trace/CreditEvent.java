@@ -0,0 +1,17 @@
+package com.straxov.trace;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A spender obtained a loan to pay a hired worker, including refused or interrupted attempts.
+ */
+@Name("com.straxov.Credit")
+@Label("Credit")
+class CreditEvent extends PhaseEvent {
+    @Label("Attempts")
+    int attempts;
+
+    @Label("Amount")
+    int amount;
+}
@@ -0,0 +1,17 @@
+package com.straxov.trace;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A worker deposited accumulated money, including retries after back-off.
+ */
+@Name("com.straxov.Deposit")
+@Label("Deposit")
+class DepositEvent extends PhaseEvent {
+    @Label("Attempts")
+    int attempts;
+
+    @Label("Amount")
+    int amount;
+}
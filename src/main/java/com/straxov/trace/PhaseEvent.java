@@ -0,0 +1,27 @@
+package com.straxov.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Base type of Flight Recorder events describing one phase of a hire, credit, work and deposit chain.
+ * Phases may span several scheduler steps, so their duration is carried in a field instead of begin/end.
+ */
+@Category("City Simulation")
+@StackTrace(false)
+abstract class PhaseEvent extends Event {
+    @Label("Chain Id")
+    @Description("Correlates the phases of one hire, credit, work and deposit chain")
+    long chainId;
+
+    @Label("Client")
+    String client;
+
+    @Label("Phase Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long phaseDuration;
+}
@@ -0,0 +1,126 @@
+package com.straxov.trace;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Offline analyzer printing a critical-path breakdown of spender/worker cycles from a .jfr file.
+ * A chain runs search, credit, work and deposit in sequence; bank queueing is reported as part of credit and deposit.
+ */
+public class TraceAnalyzer {
+    private static final String[] PHASES = {
+            "com.straxov.WorkerSearch",
+            "com.straxov.Credit",
+            "com.straxov.Work",
+            "com.straxov.Deposit",
+            "com.straxov.BankQueue"
+    };
+    private static final String[] LABELS = {"worker search", "credit", "work", "deposit", "  of which bank queue"};
+    private static final int CRITICAL_PHASES = 4;
+
+    private final long[] count = new long[PHASES.length];
+    private final long[] total = new long[PHASES.length];
+    private final long[] max = new long[PHASES.length];
+    private final Map<Long, long[]> chains = new HashMap<>();
+
+    /**
+     * Reads all phase events of a recording.
+     *
+     * @param file the .jfr file
+     * @throws IOException if the file cannot be read
+     */
+    public void read(Path file) throws IOException {
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                accept(recording.readEvent());
+            }
+        }
+    }
+
+    /**
+     * Adds one event to the breakdown; events other than phase events are ignored.
+     *
+     * @param event the recorded event
+     */
+    public void accept(RecordedEvent event) {
+        String type = event.getEventType().getName();
+        for (int phase = 0; phase < PHASES.length; phase++) {
+            if (PHASES[phase].equals(type)) {
+                long duration = event.getLong("phaseDuration");
+                count[phase]++;
+                total[phase] += duration;
+                max[phase] = Math.max(max[phase], duration);
+                chains.computeIfAbsent(event.getLong("chainId"), id -> new long[PHASES.length])[phase] += duration;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Builds the critical-path report.
+     *
+     * @return the report
+     */
+    public String report() {
+        long[] chainTotal = new long[PHASES.length];
+        long completeChains = 0;
+        long slowestId = -1;
+        long slowestTime = -1;
+        for (Map.Entry<Long, long[]> chain : chains.entrySet()) {
+            long[] phases = chain.getValue();
+            if (phases[2] == 0) continue;
+            completeChains++;
+            long time = 0;
+            for (int phase = 0; phase < PHASES.length; phase++) {
+                chainTotal[phase] += phases[phase];
+                if (phase < CRITICAL_PHASES) time += phases[phase];
+            }
+            if (time > slowestTime) {
+                slowestTime = time;
+                slowestId = chain.getKey();
+            }
+        }
+        long pathTotal = 0;
+        for (int phase = 0; phase < CRITICAL_PHASES; phase++) pathTotal += chainTotal[phase];
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("Chains with completed work: ").append(completeChains).append('\n');
+        sb.append(String.format("%-22s %10s %12s %12s %8s%n", "phase", "events", "avg ms", "max ms", "path %"));
+        for (int phase = 0; phase < PHASES.length; phase++) {
+            double avg = count[phase] == 0 ? 0 : total[phase] / (double) count[phase] / 1e6;
+            double share = pathTotal == 0 ? 0 : 100.0 * chainTotal[phase] / pathTotal;
+            sb.append(String.format("%-22s %10d %12.3f %12.3f %7.1f%%%n",
+                    LABELS[phase], count[phase], avg, max[phase] / 1e6, share));
+        }
+        if (slowestId >= 0) {
+            long[] phases = chains.get(slowestId);
+            sb.append("Slowest chain ").append(slowestId).append(':');
+            for (int phase = 0; phase < PHASES.length; phase++) {
+                sb.append(String.format(" %s=%.3fms", LABELS[phase].trim(), phases[phase] / 1e6));
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Entry point of the analyzer.
+     *
+     * @param args path to the .jfr file
+     * @throws IOException if the file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.out.println("Usage: TraceAnalyzer <recording.jfr>");
+            return;
+        }
+        TraceAnalyzer analyzer = new TraceAnalyzer();
+        analyzer.read(Path.of(args[0]));
+        System.out.print(analyzer.report());
+    }
+}
@@ -0,0 +1,108 @@
+package com.straxov.trace;
+
+/**
+ * Emits Flight Recorder events for the phases of spender/worker cycles.
+ * Events are allocated only when their type is enabled in the running recording, so tracing can stay on in production
+ * without producing garbage while no recording is active.
+ * Start a recording with {@code -XX:StartFlightRecording:filename=city.jfr} and analyze it with {@link TraceAnalyzer}.
+ */
+public class Tracer {
+    private static final WorkerSearchEvent WORKER_SEARCH = new WorkerSearchEvent();
+    private static final CreditEvent CREDIT = new CreditEvent();
+    private static final BankQueueEvent BANK_QUEUE = new BankQueueEvent();
+    private static final WorkEvent WORK = new WorkEvent();
+    private static final DepositEvent DEPOSIT = new DepositEvent();
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private Tracer() {
+    }
+
+    /**
+     * Records that a worker took a spender's posted job.
+     *
+     * @param chainId    the chain id of the hire
+     * @param client     the spender's name
+     * @param startNanos when the job was posted, from System.nanoTime()
+     */
+    public static void workerSearch(long chainId, String client, long startNanos) {
+        if (!WORKER_SEARCH.isEnabled()) return;
+        WorkerSearchEvent event = new WorkerSearchEvent();
+        fill(event, chainId, client, startNanos);
+        event.commit();
+    }
+
+    /**
+     * Records that a spender obtained a loan.
+     *
+     * @param chainId    the chain id of the hire
+     * @param client     the spender's name
+     * @param startNanos when the first loan attempt started, from System.nanoTime()
+     * @param attempts   number of loan attempts
+     * @param amount     the loan amount
+     */
+    public static void credit(long chainId, String client, long startNanos, int attempts, int amount) {
+        if (!CREDIT.isEnabled()) return;
+        CreditEvent event = new CreditEvent();
+        fill(event, chainId, client, startNanos);
+        event.attempts = attempts;
+        event.amount = amount;
+        event.commit();
+    }
+
+    /**
+     * Records that a client got to the front of a bank's queue.
+     *
+     * @param chainId    the chain id the client is working on
+     * @param client     the client's name
+     * @param startNanos when the client arrived at the bank, from System.nanoTime()
+     * @param bank       the bank's name
+     * @param credit     true for a loan, false for a deposit
+     */
+    public static void bankQueue(long chainId, String client, long startNanos, String bank, boolean credit) {
+        if (!BANK_QUEUE.isEnabled()) return;
+        BankQueueEvent event = new BankQueueEvent();
+        fill(event, chainId, client, startNanos);
+        event.bank = bank;
+        event.credit = credit;
+        event.commit();
+    }
+
+    /**
+     * Records that a worker finished a job.
+     *
+     * @param chainId    the chain id of the job
+     * @param client     the worker's name
+     * @param startNanos when the worker was hired, from System.nanoTime()
+     */
+    public static void work(long chainId, String client, long startNanos) {
+        if (!WORK.isEnabled()) return;
+        WorkEvent event = new WorkEvent();
+        fill(event, chainId, client, startNanos);
+        event.commit();
+    }
+
+    /**
+     * Records that a worker deposited accumulated money.
+     *
+     * @param chainId    the chain id of the job that triggered the deposit
+     * @param client     the worker's name
+     * @param startNanos when the first deposit attempt started, from System.nanoTime()
+     * @param attempts   number of deposit attempts
+     * @param amount     the deposited amount
+     */
+    public static void deposit(long chainId, String client, long startNanos, int attempts, int amount) {
+        if (!DEPOSIT.isEnabled()) return;
+        DepositEvent event = new DepositEvent();
+        fill(event, chainId, client, startNanos);
+        event.attempts = attempts;
+        event.amount = amount;
+        event.commit();
+    }
+
+    private static void fill(PhaseEvent event, long chainId, String client, long startNanos) {
+        event.chainId = chainId;
+        event.client = client;
+        event.phaseDuration = System.nanoTime() - startNanos;
+    }
+}
@@ -0,0 +1,12 @@
+package com.straxov.trace;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A worker completed a job, from hire to completion.
+ */
+@Name("com.straxov.Work")
+@Label("Work")
+class WorkEvent extends PhaseEvent {
+}
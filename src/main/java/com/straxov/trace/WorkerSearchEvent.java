@@ -0,0 +1,12 @@
+package com.straxov.trace;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A spender's posted job waited until a worker took it.
+ */
+@Name("com.straxov.WorkerSearch")
+@Label("Worker Search")
+class WorkerSearchEvent extends PhaseEvent {
+}
@@ -0,0 +1,30 @@
+package com.straxov.transfer;
+
+/**
+ * Anything holding money that can take part in a {@link Transfers transfer}: clients and banks.
+ * The balance of an account is guarded by the account's own monitor.
+ */
+public interface Account {
+
+    /**
+     * Gets the account's position in the lock order; unique within the city, see {@link Transfers#lockOrder}.
+     *
+     * @return the lock order key
+     */
+    long getLockOrder();
+
+    /**
+     * Gets the current balance. Called by transfers while holding the account's monitor.
+     *
+     * @return the balance
+     */
+    int getBalance();
+
+    /**
+     * Changes the balance by the given amount. Must only be called by {@link Transfers}
+     * while holding the account's monitor.
+     *
+     * @param delta the amount to add, negative to subtract
+     */
+    void applyDelta(int delta);
+}
@@ -0,0 +1,134 @@
+package com.straxov.transfer;
+
+/**
+ * Atomic money transfers between any accounts.
+ * All monitors involved are taken in the lock order of the accounts, so concurrent transfers over
+ * overlapping accounts can never deadlock, and no observer holding an account's monitor sees money in flight.
+ * A transfer either applies completely or, if any balance would go negative, not at all.
+ */
+public class Transfers {
+    /**
+     * Lock order kind of banks.
+     */
+    public static final int BANK = 0;
+    /**
+     * Lock order kind of workers.
+     */
+    public static final int WORKER = 1;
+    /**
+     * Lock order kind of spenders.
+     */
+    public static final int SPENDER = 2;
+    /**
+     * Lock order kind of escrow accounts holding money between two steps of a batch.
+     */
+    public static final int ESCROW = 3;
+    private static final int KIND_SHIFT = 48;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private Transfers() {
+    }
+
+    /**
+     * Derives the lock order key of an account from its kind and its id within that kind, so accounts can be
+     * created in parallel without sharing a counter.
+     *
+     * @param kind the account kind, e.g. {@link #BANK}
+     * @param id   the account's id, unique within its kind and city and below 2^48
+     * @return the lock order key, unique within the city
+     */
+    public static long lockOrder(int kind, long id) {
+        return ((long) kind << KIND_SHIFT) | id;
+    }
+
+    /**
+     * Moves the amount from one account to another if the source has enough money.
+     *
+     * @param from   the paying account
+     * @param to     the receiving account
+     * @param amount the amount, not negative
+     * @return true if the money was moved, false if the source balance is insufficient
+     */
+    public static boolean transfer(Account from, Account to, int amount) {
+        return move(from, to, amount, amount) == amount;
+    }
+
+    /**
+     * Moves as much as the source has, up to the given maximum.
+     *
+     * @param from the paying account
+     * @param to   the receiving account
+     * @param max  the maximum amount, not negative
+     * @return the amount actually moved
+     */
+    public static int transferUpTo(Account from, Account to, int max) {
+        return move(from, to, max, 0);
+    }
+
+    /**
+     * Applies balance changes to several accounts as one atomic step.
+     * The changes must add up to zero so money is neither created nor destroyed.
+     * Monitors are taken by repeatedly picking the next account in lock order instead of sorting the legs,
+     * which suits a handful of legs.
+     *
+     * @param accounts the accounts, possibly with repetitions
+     * @param deltas   the change for each account, negative for payers
+     * @return true if applied, false if any balance would go negative
+     * @throws IllegalArgumentException if the arrays differ in length or the changes do not add up to zero
+     */
+    public static boolean execute(Account[] accounts, int[] deltas) {
+        if (accounts.length != deltas.length) {
+            throw new IllegalArgumentException("Each account needs exactly one delta");
+        }
+        long total = 0;
+        for (int delta : deltas) total += delta;
+        if (total != 0) {
+            throw new IllegalArgumentException("Transfer legs must add up to zero");
+        }
+        return lockAndApply(accounts, deltas, Long.MIN_VALUE);
+    }
+
+    private static int move(Account from, Account to, int max, int min) {
+        if (max < 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        if (from == to) return 0;
+        Account first = from.getLockOrder() < to.getLockOrder() ? from : to;
+        Account second = first == from ? to : from;
+        synchronized (first) {
+            synchronized (second) {
+                int amount = Math.min(max, from.getBalance());
+                if (amount < min || amount <= 0) return 0;
+                from.applyDelta(-amount);
+                to.applyDelta(amount);
+                return amount;
+            }
+        }
+    }
+
+    private static boolean lockAndApply(Account[] accounts, int[] deltas, long locked) {
+        Account next = null;
+        for (Account account : accounts) {
+            long order = account.getLockOrder();
+            if (order > locked && (next == null || order < next.getLockOrder())) next = account;
+        }
+        if (next != null) {
+            synchronized (next) {
+                return lockAndApply(accounts, deltas, next.getLockOrder());
+            }
+        }
+        for (int i = 0; i < accounts.length; i++) {
+            long balance = accounts[i].getBalance();
+            for (int j = 0; j < accounts.length; j++) {
+                if (accounts[j] == accounts[i]) balance += deltas[j];
+            }
+            if (balance < 0) return false;
+        }
+        for (int i = 0; i < accounts.length; i++) {
+            accounts[i].applyDelta(deltas[i]);
+        }
+        return true;
+    }
+}
\ No newline at end of file
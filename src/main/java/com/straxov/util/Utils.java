@@ -38,14 +38,21 @@ public class Utils {
 
     /**
      * Returns a random element from the list that matches the predicate, or null if none match.
+     * Picks uniformly in a single pass without building a filtered copy.
      *
      * @param list      the list to select from
      * @param predicate the filter predicate
      * @return a random matching element or null
      */
     public static <T> T getRandomFree(List<T> list, Predicate<T> predicate) {
-        List<T> filtered = list.stream().filter(predicate).toList();
-        if (filtered.isEmpty()) return null;
-        return filtered.get(random.nextInt(filtered.size()));
+        T chosen = null;
+        int matches = 0;
+        for (int i = 0, n = list.size(); i < n; i++) {
+            T element = list.get(i);
+            if (predicate.test(element) && random.nextInt(++matches) == 0) {
+                chosen = element;
+            }
+        }
+        return chosen;
     }
 }
\ No newline at end of file
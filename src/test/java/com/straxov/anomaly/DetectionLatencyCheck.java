@@ -0,0 +1,80 @@
+package com.straxov.anomaly;
+
+import com.straxov.city.City;
+import com.straxov.entitiy.Bank;
+import com.straxov.entitiy.Client;
+import com.straxov.loader.ConfigLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks that the anomaly detector decides on transactions within its latency bound.
+ * Registers the entities of a city with its detector and feeds it loans and deposits between them from a single
+ * thread, first to compile the detector and then, after a pause for background compilation to finish and
+ * forgetting the times seen so far, to measure. The city is not started, so executors do not preempt each other,
+ * and alerts go to a listener that drops them, as the listener is not timed.
+ *
+ * <p>The bound is enforced on the 99.9th percentile, and the maximum is only reported: on a shared host the OS
+ * stalls even a thread spinning on the clock for milliseconds at a time, so a single decision can overrun
+ * through no fault of the detector. Exits with status 1 if the percentile reaches the bound.</p>
+ */
+public class DetectionLatencyCheck {
+    private static final int WARM_UP_TRANSACTIONS = 1_000_000;
+    private static final long COMPILE_PAUSE_MS = 2000;
+    private static final int MEASURED_TRANSACTIONS = 1_000_000;
+    private static final long BOUND_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final double PERCENTILE = 99.9;
+
+    /**
+     * Entry point of the check.
+     *
+     * @param args Command line arguments (not used)
+     * @throws InterruptedException if interrupted while the compiler catches up
+     */
+    public static void main(String[] args) throws InterruptedException {
+        ConfigLoader base = new ConfigLoader();
+        base.loadFromPropertiesFile("src/main/resources/config.properties");
+        ConfigLoader config = base
+                .withOverride("workers.count", "60")
+                .withOverride("spenders.count", "80");
+
+        City city = new City(config);
+        AnomalyDetector detector = city.getAnomalyDetector();
+        detector.setListener((subject, reason) -> { });
+        List<Bank> banks = city.getBanks();
+        List<Client> clients = new ArrayList<>(city.getWorkers());
+        clients.addAll(city.getSpenders());
+        for (Bank bank : banks) detector.register(bank);
+        for (Client client : clients) detector.register(client);
+
+        feed(detector, banks, clients, WARM_UP_TRANSACTIONS);
+        Thread.sleep(COMPILE_PAUSE_MS);
+        detector.resetDetectionTimes();
+        feed(detector, banks, clients, MEASURED_TRANSACTIONS);
+
+        long percentile = detector.getDetectionNanosPercentile(PERCENTILE);
+        System.out.println("Transactions: " + MEASURED_TRANSACTIONS + ", p" + PERCENTILE + " detection time at most "
+                + String.format("%.1f", percentile / 1000.0) + "us, max "
+                + String.format("%.1f", detector.getMaxDetectionNanos() / 1000.0) + "us, bound: "
+                + TimeUnit.NANOSECONDS.toMicros(BOUND_NANOS) + "us");
+        if (percentile > BOUND_NANOS) {
+            System.out.println("FAILED: detection exceeded its latency bound.");
+            System.exit(1);
+        }
+        System.out.println("OK: transactions were checked within the bound.");
+    }
+
+    private static void feed(AnomalyDetector detector, List<Bank> banks, List<Client> clients, int transactions) {
+        for (int i = 0; i < transactions; i++) {
+            Bank bank = banks.get(i % banks.size());
+            Client client = clients.get(i % clients.size());
+            if ((i & 1) == 0) {
+                detector.onLoan(bank, client, 1 + i % 7);
+            } else {
+                detector.onDeposit(bank, client, 1 + i % 5);
+            }
+        }
+    }
+}
\ No newline at end of file
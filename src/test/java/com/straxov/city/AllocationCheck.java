@@ -0,0 +1,107 @@
+package com.straxov.city;
+
+import com.straxov.entitiy.Bank;
+import com.straxov.loader.ConfigLoader;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that the steady-state hire, pay and deposit cycle does not allocate.
+ * Runs a city with logging on but printed to nowhere, warms it up, and then measures the bytes allocated by
+ * the scheduler threads per bank transaction with the per-thread counters of {@code ThreadMXBean}.
+ * The clearing house and the shift scheduler, with its lunches and jittered deposits, keep running during the
+ * window; the other periodic services (metrics, interest, autoscaling) are kept out of it.
+ *
+ * <p>Queuing a method for the optimizing compiler resolves the string constants of its class on the calling thread,
+ * which allocates once per class, so a compilation late in the warm-up shows up as a stray allocation in the
+ * window. The city is therefore run with many times the configured clients and bank reserves, which keeps the
+ * per-client dynamics but makes enough transactions for the JIT to finish with the hot path before measuring.
+ * Warming up a separate city does not help: stopping it throws away compiled code the measured city then has
+ * to compile again.</p>
+ * Exits with status 1 if the cycle allocates.
+ */
+public class AllocationCheck {
+    private static final int CITY_SCALE = 100;
+    private static final long WARM_UP_MS = 10000;
+    private static final long MEASURE_MS = 3000;
+    private static final String FAR_FUTURE = String.valueOf(24 * 3600 * 1000);
+
+    /**
+     * Entry point of the check.
+     *
+     * @param args Command line arguments (not used)
+     * @throws Exception if the city cannot be run
+     */
+    public static void main(String[] args) throws Exception {
+        ConfigLoader base = new ConfigLoader();
+        base.loadFromPropertiesFile("src/main/resources/config.properties");
+        ConfigLoader config = base
+                .withOverride("worker.work.duration", "20")
+                .withOverride("client.initial.money", "0")
+                .withOverride("metrics.sample.interval", FAR_FUTURE)
+                .withOverride("ledger.batch.interval", FAR_FUTURE)
+                .withOverride("autoscale.enabled", "false")
+                .withOverride("anomaly.zscore.threshold", "1e9")
+                .withOverride("anomaly.client.loan.limit", String.valueOf(Integer.MAX_VALUE))
+                .withOverride("anomaly.bank.reserve.floor", "0");
+        config = config
+                .withOverride("workers.count", String.valueOf(config.getWorkersCount() * CITY_SCALE))
+                .withOverride("spenders.count", String.valueOf(config.getSpendersCount() * CITY_SCALE))
+                .withOverride("bank.initial.money", String.valueOf(config.getBankInitialMoney() * CITY_SCALE));
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        City city = new City(config);
+        city.start();
+        long allocated;
+        long transactions;
+        try {
+            Thread.sleep(WARM_UP_MS);
+            long[] ids = schedulerThreadIds();
+            long[] before = threads.getThreadAllocatedBytes(ids);
+            long transactionsBefore = countTransactions(city);
+            Thread.sleep(MEASURE_MS);
+            long[] after = threads.getThreadAllocatedBytes(ids);
+            transactions = countTransactions(city) - transactionsBefore;
+            allocated = 0;
+            for (int i = 0; i < ids.length; i++) {
+                allocated += after[i] - before[i];
+            }
+        } finally {
+            city.stop();
+            System.setOut(console);
+        }
+
+        double perTransaction = transactions == 0 ? Double.NaN : (double) allocated / transactions;
+        System.out.println("Transactions: " + transactions + ", allocated: " + allocated
+                + " bytes, per transaction: " + String.format("%.2f", perTransaction) + " bytes");
+        System.out.println(city.getClearingHouse().getReport());
+        if (transactions == 0 || allocated > 0) {
+            System.out.println("FAILED: the steady-state cycle allocates or made no progress.");
+            System.exit(1);
+        }
+        System.out.println("OK: the steady-state cycle is allocation-free.");
+    }
+
+    private static long[] schedulerThreadIds() {
+        List<Long> ids = new ArrayList<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("Scheduler - ")) ids.add(thread.getId());
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long countTransactions(City city) {
+        long count = 0;
+        for (Bank bank : city.getBanks()) {
+            count += bank.getLoanCount() + bank.getDepositCount();
+        }
+        return count;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.straxov.metrics;
+
+/**
+ * Checks which tier a {@link TieredSeries} serves a range query from, including queries that start before the
+ * first sample was recorded. Exits with status 1 if a query misses samples the series still holds.
+ */
+public class TieredSeriesCheck {
+    private static final long STEP_MS = 100;
+    private static final long FIRST_MS = 1000;
+
+    private static int failures;
+
+    /**
+     * Entry point of the check.
+     *
+     * @param args Command line arguments (not used)
+     */
+    public static void main(String[] args) {
+        TieredSeries fresh = filled(3, 100, 10, 50);
+        expect("fresh series, query from before the first sample", fresh.range(0, Long.MAX_VALUE), 50, FIRST_MS);
+        expect("fresh series, query from the first sample", fresh.range(FIRST_MS, Long.MAX_VALUE), 50, FIRST_MS);
+
+        TieredSeries wrapped = filled(3, 100, 10, 2000);
+        expect("raw tier wrapped, query from before the first sample", wrapped.range(0, Long.MAX_VALUE), 20,
+                FIRST_MS + 99 * STEP_MS);
+
+        TieredSeries full = filled(2, 10, 10, 1000);
+        expect("every tier wrapped, query from before the first sample", full.range(0, Long.MAX_VALUE), 10,
+                FIRST_MS + 909 * STEP_MS);
+
+        if (failures > 0) {
+            System.out.println("FAILED: " + failures + " range queries returned the wrong samples.");
+            System.exit(1);
+        }
+        System.out.println("OK: range queries found every sample the series holds.");
+    }
+
+    private static TieredSeries filled(int tiers, int capacity, int factor, int samples) {
+        TieredSeries series = new TieredSeries(tiers, capacity, factor);
+        for (int i = 0; i < samples; i++) {
+            series.record(FIRST_MS + i * STEP_MS, i);
+        }
+        return series;
+    }
+
+    private static void expect(String label, RingSeries.Slice slice, int samples, long firstTime) {
+        long[] times = slice.getTimes();
+        long first = times.length == 0 ? -1 : times[0];
+        boolean ok = times.length == samples && first == firstTime;
+        System.out.println((ok ? "ok    " : "WRONG ") + label + ": " + times.length + " samples from " + first
+                + ", expected " + samples + " from " + firstTime);
+        if (!ok) failures++;
+    }
+}
\ No newline at end of file